@@ -6,12 +6,17 @@ import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import io.vertx.core.*;
 import io.vertx.core.Context;
+import io.vertx.core.http.Http2Settings;
 import io.vertx.core.net.JksOptions;
+import io.vertx.core.net.SSLOptions;
+import io.vertx.core.net.SocketAddress;
 import io.vertx.docgen.Source;
 import io.vertx.grpc.*;
 
+import java.time.Duration;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
@@ -97,6 +102,27 @@ public class Examples {
         .withCompression("gzip");
   }
 
+  public void vertxServerWithVirtualThreads() {
+    // The rcp service
+    VertxGreeterGrpc.GreeterVertxImplBase service =
+      new VertxGreeterGrpc.GreeterVertxImplBase() {
+        @Override
+        public Future<HelloReply> sayHello(HelloRequest request) {
+          // Runs on a virtual thread, blocking is fine
+          String message = loadGreeting(request.getName());
+          return Future.succeededFuture(
+            HelloReply.newBuilder()
+              .setMessage(message)
+              .build());
+        }
+      }
+        .withVirtualThreads();
+  }
+
+  private String loadGreeting(String name) {
+    return "Hello " + name;
+  }
+
   public void connectClient(Vertx vertx) {
     // Create the channel
     ManagedChannel channel = VertxChannelBuilder
@@ -145,6 +171,59 @@ public class Examples {
       .onSuccess(helloReply -> System.out.println("Got the server response: " + helloReply.getMessage())).onFailure(err -> System.out.println("Coult not reach server " + err));
   }
 
+  public void nameResolution(Vertx vertx) {
+    // Resolve the addresses of my.host
+    ManagedChannel channel = VertxChannelBuilder
+      .forTarget(vertx, "vertx-dns:///my.host:8080")
+      .usePlaintext()
+      .build();
+
+    // Resolve the SRV records of the service with a given DNS server
+    ManagedChannel other = VertxChannelBuilder
+      .forTarget(vertx, "vertx-dns://10.0.0.2/_grpc._tcp.my.host")
+      .usePlaintext()
+      .build();
+  }
+
+  public void leastRequest(Vertx vertx) {
+    ManagedChannel channel = VertxChannelBuilder
+      .forTarget(vertx, "vertx-dns:///_grpc._tcp.example.com")
+      .defaultLoadBalancingPolicy(LeastRequestLoadBalancerProvider.POLICY_NAME)
+      .usePlaintext()
+      .build();
+  }
+
+  public void consistentHash(Vertx vertx, HelloRequest request) {
+    ManagedChannel channel = VertxChannelBuilder
+      .forTarget(vertx, "vertx-dns:///_grpc._tcp.example.com")
+      .consistentHash("x-user-id")
+      .usePlaintext()
+      .build();
+
+    // Or set the key of a call with the call option
+    VertxGreeterGrpc.GreeterVertxStub stub = VertxGreeterGrpc
+      .newVertxStub(channel)
+      .withOption(ConsistentHashLoadBalancerProvider.HASH_KEY, request.getName());
+  }
+
+  public void channelPool(Vertx vertx) {
+    ManagedChannel channel = VertxChannelBuilder
+      .forAddress(vertx, "localhost", 8080)
+      .poolSize(VertxOptions.DEFAULT_EVENT_LOOP_POOL_SIZE)
+      .usePlaintext()
+      .build();
+  }
+
+  public void zstdCompression(VertxGreeterGrpc.GreeterVertxImplBase service, ManagedChannel channel) {
+    // Compress the responses with zstd
+    service.withCompression("zstd");
+
+    // Compress the requests with zstd
+    GreeterGrpc.GreeterStub stub = GreeterGrpc
+      .newStub(channel)
+      .withCompression("zstd");
+  }
+
   public void clientWithCompression(ManagedChannel channel) {
     // Get a stub to use for interacting with the
     // remote service with message compression
@@ -163,6 +242,37 @@ public class Examples {
           .setPassword("secret")));
   }
 
+  public void serverOptions(Vertx vertx) {
+    VertxServerBuilder builder = VertxServerBuilder.forPort(vertx, 8080)
+      .useOptions(options -> options
+        .setTcpNoDelay(true)
+        .setTcpFastOpen(true)
+        .setReceiveBufferSize(1024 * 1024)
+        .setIdleTimeout(5)
+        .setIdleTimeoutUnit(TimeUnit.MINUTES)
+        .setInitialSettings(new Http2Settings()
+          .setInitialWindowSize(4 * 1024 * 1024)
+          .setMaxConcurrentStreams(1000)));
+  }
+
+  public void flowControl(Vertx vertx, BindableService service) {
+    VertxServer rpcServer = VertxServerBuilder
+      .forPort(vertx, 8080)
+      .addService(service)
+      .initialFlowControlWindow(4 * 1024 * 1024)
+      .build();
+
+    ManagedChannel channel = VertxChannelBuilder
+      .forAddress(vertx, "localhost", 8080)
+      .flowControlWindow(8 * 1024 * 1024)
+      .build();
+
+    rpcServer
+      .flowControlWindows()
+      .onSuccess(windows -> windows
+        .forEach(window -> System.out.println(window.remoteAddress() + " " + window.localWindow())));
+  }
+
   public void serverScaling(Vertx vertx) {
 
     vertx.deployVerticle(
@@ -200,6 +310,68 @@ public class Examples {
         .setInstances(4));
   }
 
+  public void reusePort(Vertx vertx, BindableService service) {
+    VertxServer rpcServer = VertxServerBuilder
+      .forAddress(vertx, "my.host", 8080)
+      .addService(service)
+      .reusePort(true)
+      .build();
+  }
+
+  public void leastLoaded(Vertx vertx, BindableService service) {
+    VertxServerBuilder builder = VertxServerBuilder
+      .forAddress(vertx, "my.host", 8080)
+      .addService(service)
+      .leastLoaded(true);
+
+    // Clients reconnect after 10 minutes and get placed again
+    builder.nettyBuilder()
+      .maxConnectionAge(10, TimeUnit.MINUTES)
+      .maxConnectionAgeGrace(30, TimeUnit.SECONDS);
+
+    VertxServer rpcServer = builder.build();
+  }
+
+  public void inlineDispatch(Vertx vertx, BindableService service) {
+    VertxServer rpcServer = VertxServerBuilder
+      .forAddress(vertx, "my.host", 8080)
+      .addService(service)
+      .inlineDispatch(true)
+      .build();
+  }
+
+  public void concurrencyLimiter(Vertx vertx, BindableService service) {
+    AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.create()
+      .setInitialLimit(20)
+      .setMaxLimit(200);
+
+    VertxServer rpcServer = VertxServerBuilder
+      .forAddress(vertx, "my.host", 8080)
+      .addService(service)
+      .concurrencyLimiter(limiter)
+      .build();
+  }
+
+  public void compressionPolicy(Vertx vertx, BindableService service) {
+    CompressionPolicy policy = CompressionPolicy.create()
+      .setEncoding("zstd")
+      .setMinSize(1024)
+      .setMaxPendingTasks(64);
+
+    VertxServer rpcServer = VertxServerBuilder
+      .forAddress(vertx, "my.host", 8080)
+      .addService(service)
+      .compressionPolicy(policy)
+      .build();
+  }
+
+  public void gracefulShutdown(VertxServer rpcServer) {
+    // Give 30 seconds to in-flight calls to complete
+    rpcServer
+      .shutdown(Duration.ofSeconds(30))
+      .onComplete(ar -> System.out.println("Server terminated"));
+  }
+
   public void sslClient(Vertx vertx) {
     ManagedChannel channel = VertxChannelBuilder.
       forAddress(vertx, "localhost", 8080)
@@ -212,6 +384,33 @@ public class Examples {
       .build();
   }
 
+  public void sslClientAsync(Vertx vertx) {
+    Future<ManagedChannel> fut = VertxChannelBuilder.
+      forAddress(vertx, "localhost", 8080)
+      .useSsl(options -> options
+        .setSsl(true)
+        .setUseAlpn(true)
+        .setTrustStoreOptions(new JksOptions()
+          .setPath("client-truststore.jks")
+          .setPassword("secret")))
+      .buildAsync();
+
+    fut.onSuccess(channel -> {
+      // Use the channel
+    });
+  }
+
+  public void updateSSLOptions(VertxServer server) {
+    Future<Void> fut = server.updateSSLOptions(new SSLOptions()
+      .setKeyCertOptions(new JksOptions()
+        .setPath("renewed-keystore.jks")
+        .setPassword("secret")));
+
+    fut.onSuccess(v -> {
+      // New connections use the renewed certificate
+    });
+  }
+
   public void blockingInterceptor() {
     class MyInterceptor implements ServerInterceptor {
       @Override
@@ -232,6 +431,40 @@ public class Examples {
       .build();
   }
 
+  public void responseCache(Vertx vertx, BindableService service) {
+    ResponseCache cache = ResponseCache.create()
+      .addMethod(GreeterGrpc.getSayHelloMethod())
+      .setMaxSize(10_000)
+      .setTtl(30, TimeUnit.SECONDS);
+
+    VertxServer rpcServer = VertxServerBuilder
+      .forAddress(vertx, "my.host", 8080)
+      .addService(ServerInterceptors.intercept(service, cache))
+      .build();
+  }
+
+  public void requestCoalescer(Vertx vertx, BindableService service) {
+    RequestCoalescer coalescer = RequestCoalescer.create()
+      .addMethod(GreeterGrpc.getSayHelloMethod());
+
+    VertxServer rpcServer = VertxServerBuilder
+      .forAddress(vertx, "my.host", 8080)
+      .addService(ServerInterceptors.intercept(service, coalescer))
+      .build();
+  }
+
+  public void proxy(Vertx vertx) {
+    ManagedChannel backend = VertxChannelBuilder
+      .forAddress(vertx, "backend.host", 8080)
+      .usePlaintext()
+      .build();
+
+    VertxServer rpcServer = VertxServerBuilder
+      .forAddress(vertx, "my.host", 8080)
+      .fallbackHandlerRegistry(GrpcProxy.create(backend))
+      .build();
+  }
+
   public <MyInterceptor extends ServerInterceptor> void blockingInterceptorUsage(
     MyInterceptor myInterceptor,
     Vertx vertx,
@@ -256,6 +489,44 @@ public class Examples {
     Vertx.vertx(new VertxOptions().setPreferNativeTransport(true));
   }
 
+  public void protobufMarshaller(Vertx vertx) {
+    VertxGreeterGrpc.GreeterVertxImplBase service =
+      new VertxGreeterGrpc.GreeterVertxImplBase() {
+        @Override
+        public Future<HelloReply> sayHello(HelloRequest request) {
+          return Future.succeededFuture(
+            HelloReply.newBuilder()
+              .setMessage(request.getName())
+              .build());
+        }
+      }
+        .withProtobufMarshaller();
+
+    // Same for the responses received by a channel
+    ManagedChannel channel = VertxChannelBuilder
+      .forAddress(vertx, "localhost", 8080)
+      .intercept(ProtobufMarshaller.clientInterceptor())
+      .usePlaintext()
+      .build();
+  }
+
+  public void domainSocket(Vertx vertx, BindableService service) {
+    SocketAddress address = SocketAddress
+      .domainSocketAddress("/var/run/greeter.sock");
+
+    // The server listens on the domain socket
+    VertxServer rpcServer = VertxServerBuilder
+      .forAddress(vertx, address)
+      .addService(service)
+      .build();
+
+    // The channel connects to the domain socket
+    ManagedChannel channel = VertxChannelBuilder
+      .forAddress(vertx, address)
+      .usePlaintext()
+      .build();
+  }
+
   public void clientSessionInterceptorUsage(ManagedChannel channel, Vertx vertx, String theSessionId, int port) {
     Metadata extraHeaders = new Metadata();
     extraHeaders.put(
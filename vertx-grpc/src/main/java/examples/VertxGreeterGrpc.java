@@ -61,6 +61,9 @@ public final class VertxGreeterGrpc {
      */
     public static abstract class GreeterVertxImplBase implements io.grpc.BindableService {
         private String compression;
+        private java.util.concurrent.Executor executor;
+        private final java.util.Map<String, java.util.concurrent.Executor> methodExecutors = new java.util.HashMap<>();
+        private boolean protobufMarshaller;
 
         /**
          * Set whether the server will try to use a compressed response.
@@ -72,6 +75,57 @@ public final class VertxGreeterGrpc {
             return this;
         }
 
+        /**
+         * Set an executor running the methods of this service instead of the context of the calls, the responses
+         * are written on the context of the calls. This must be set before the service is bound.
+         *
+         * @param executor the executor
+         */
+        public GreeterVertxImplBase withExecutor(java.util.concurrent.Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Like {@link #withExecutor(java.util.concurrent.Executor)} for a single method.
+         *
+         * @param methodName the method name, e.g {@code sayHello}
+         * @param executor the executor
+         * @throws IllegalArgumentException when the service has no such method
+         */
+        public GreeterVertxImplBase withExecutor(String methodName, java.util.concurrent.Executor executor) {
+            switch (methodName) {
+                case "sayHello":
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown method " + methodName + " of service " + getServiceDescriptor().getName());
+            }
+            this.methodExecutors.put(methodName, executor);
+            return this;
+        }
+
+        /**
+         * Run the methods of this service on virtual threads, so they can block.
+         *
+         * @throws UnsupportedOperationException when the JVM does not support virtual threads
+         */
+        public GreeterVertxImplBase withVirtualThreads() {
+            return withExecutor(io.vertx.grpc.stub.VirtualThreads.executor());
+        }
+
+        /**
+         * Marshall the messages of this service with {@link io.vertx.grpc.ProtobufMarshaller}, parsed from the buffers
+         * of the transport instead of heap copies.
+         */
+        public GreeterVertxImplBase withProtobufMarshaller() {
+            this.protobufMarshaller = true;
+            return this;
+        }
+
+        private java.util.concurrent.Executor executor(String methodName) {
+            return methodExecutors.getOrDefault(methodName, executor);
+        }
+
         /**
          * <pre>
          *  Sends a greeting
@@ -82,15 +136,16 @@ public final class VertxGreeterGrpc {
         }
 
         @java.lang.Override public final io.grpc.ServerServiceDefinition bindService() {
-            return io.grpc.ServerServiceDefinition.builder(getServiceDescriptor())
+            io.grpc.ServerServiceDefinition definition = io.grpc.ServerServiceDefinition.builder(getServiceDescriptor())
                     .addMethod(
                             examples.GreeterGrpc.getSayHelloMethod(),
                             asyncUnaryCall(
                                     new MethodHandlers<
                                             examples.HelloRequest,
                                             examples.HelloReply>(
-                                            this, METHODID_SAY_HELLO, compression)))
+                                            this, METHODID_SAY_HELLO, compression, executor("sayHello"))))
                     .build();
+            return protobufMarshaller ? io.vertx.grpc.ProtobufMarshaller.bind(definition) : definition;
         }
     }
 
@@ -105,11 +160,13 @@ public final class VertxGreeterGrpc {
         private final GreeterVertxImplBase serviceImpl;
         private final int methodId;
         private final String compression;
+        private final java.util.concurrent.Executor executor;
 
-        MethodHandlers(GreeterVertxImplBase serviceImpl, int methodId, String compression) {
+        MethodHandlers(GreeterVertxImplBase serviceImpl, int methodId, String compression, java.util.concurrent.Executor executor) {
             this.serviceImpl = serviceImpl;
             this.methodId = methodId;
             this.compression = compression;
+            this.executor = executor;
         }
 
         @java.lang.Override
@@ -121,6 +178,7 @@ public final class VertxGreeterGrpc {
                             (examples.HelloRequest) request,
                             (io.grpc.stub.StreamObserver<examples.HelloReply>) responseObserver,
                             compression,
+                            executor,
                             serviceImpl::sayHello);
                     break;
                 default:
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2011-2023 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.grpc;
+
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A server interceptor limiting the number of concurrent calls of each method with a limit that adapts to the
+ * observed latency, calls over the limit are rejected immediately with {@code RESOURCE_EXHAUSTED}.
+ *
+ * <p>The limit follows the TCP Vegas congestion control algorithm: the lowest observed latency estimates the latency
+ * without queueing, the limit grows while the estimated queue is small and shrinks when it builds up.
+ *
+ * <p>The state is kept per thread, calls are usually dispatched on the event loop of their connection so each event
+ * loop adapts its own limit without sharing state with the others, the limits apply per event loop.
+ *
+ * <p>Only unary calls are limited, the duration of a streaming call says nothing about the load of the server, so
+ * there is no signal to adapt their limit and long-lived streams would be rejected once the initial limit is reached.
+ */
+public class AdaptiveConcurrencyLimiter implements ServerInterceptor {
+
+  /**
+   * @return a new limiter with the default settings
+   */
+  public static AdaptiveConcurrencyLimiter create() {
+    return new AdaptiveConcurrencyLimiter();
+  }
+
+  public static final int DEFAULT_INITIAL_LIMIT = 20;
+  public static final int DEFAULT_MIN_LIMIT = 1;
+  public static final int DEFAULT_MAX_LIMIT = 1000;
+  public static final int DEFAULT_PROBE_INTERVAL = 1000;
+
+  private final ThreadLocal<Map<String, Limit>> limits = ThreadLocal.withInitial(HashMap::new);
+  private int initialLimit = DEFAULT_INITIAL_LIMIT;
+  private int minLimit = DEFAULT_MIN_LIMIT;
+  private int maxLimit = DEFAULT_MAX_LIMIT;
+  private int probeInterval = DEFAULT_PROBE_INTERVAL;
+
+  private AdaptiveConcurrencyLimiter() {
+  }
+
+  /**
+   * Set the limit used before any latency has been observed.
+   *
+   * @param initialLimit the initial limit
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AdaptiveConcurrencyLimiter setInitialLimit(int initialLimit) {
+    if (initialLimit < 1) {
+      throw new IllegalArgumentException("Initial limit must be > 0");
+    }
+    this.initialLimit = initialLimit;
+    return this;
+  }
+
+  /**
+   * Set the lowest value the limit can decrease to.
+   *
+   * @param minLimit the min limit
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AdaptiveConcurrencyLimiter setMinLimit(int minLimit) {
+    if (minLimit < 1) {
+      throw new IllegalArgumentException("Min limit must be > 0");
+    }
+    this.minLimit = minLimit;
+    return this;
+  }
+
+  /**
+   * Set the highest value the limit can grow to.
+   *
+   * @param maxLimit the max limit
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AdaptiveConcurrencyLimiter setMaxLimit(int maxLimit) {
+    if (maxLimit < 1) {
+      throw new IllegalArgumentException("Max limit must be > 0");
+    }
+    this.maxLimit = maxLimit;
+    return this;
+  }
+
+  /**
+   * Set the number of samples after which the no load latency is measured again, so the limiter can follow a
+   * latency that durably increased.
+   *
+   * @param probeInterval the number of samples
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AdaptiveConcurrencyLimiter setProbeInterval(int probeInterval) {
+    if (probeInterval < 1) {
+      throw new IllegalArgumentException("Probe interval must be > 0");
+    }
+    this.probeInterval = probeInterval;
+    return this;
+  }
+
+  @Override
+  public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+    MethodDescriptor<ReqT, RespT> method = call.getMethodDescriptor();
+    if (method.getType() != MethodDescriptor.MethodType.UNARY) {
+      return next.startCall(call, headers);
+    }
+    Limit limit = limits.get().computeIfAbsent(method.getFullMethodName(), name -> new Limit());
+    if (!limit.tryAcquire()) {
+      call.close(Status.RESOURCE_EXHAUSTED.withDescription("Concurrency limit reached"), new Metadata());
+      return new ServerCall.Listener<ReqT>() {
+      };
+    }
+    long start = System.nanoTime();
+    ServerCall.Listener<ReqT> listener;
+    try {
+      listener = next.startCall(call, headers);
+    } catch (RuntimeException e) {
+      limit.release(false, 0L);
+      throw e;
+    }
+    return new ForwardingServerCallListener.SimpleForwardingServerCallListener<ReqT>(listener) {
+      @Override
+      public void onComplete() {
+        try {
+          super.onComplete();
+        } finally {
+          limit.release(true, System.nanoTime() - start);
+        }
+      }
+      @Override
+      public void onCancel() {
+        try {
+          super.onCancel();
+        } finally {
+          limit.release(false, 0L);
+        }
+      }
+    };
+  }
+
+  /**
+   * The limit of a method on a thread, synchronization is uncontended since the calls of a connection and their
+   * completion happen on the same event loop.
+   */
+  private class Limit {
+
+    private double limit = Math.min(Math.max(initialLimit, minLimit), maxLimit);
+    private int inFlight;
+    private long noLoadLatency = Long.MAX_VALUE;
+    private int samples;
+
+    synchronized boolean tryAcquire() {
+      if (inFlight >= (int) limit) {
+        return false;
+      }
+      inFlight++;
+      return true;
+    }
+
+    synchronized void release(boolean sampled, long latency) {
+      int current = inFlight--;
+      if (!sampled || latency <= 0L) {
+        return;
+      }
+      if (++samples % probeInterval == 0) {
+        noLoadLatency = latency;
+      } else if (latency < noLoadLatency) {
+        noLoadLatency = latency;
+      }
+      double log = Math.max(1D, Math.log10(limit));
+      int queue = (int) Math.ceil(limit * (1D - (double) noLoadLatency / latency));
+      double next;
+      if (queue <= 3 * log) {
+        // Only grow when the calls actually use the limit
+        if (current * 2 < limit) {
+          return;
+        }
+        next = limit + log;
+      } else if (queue >= 6 * log) {
+        next = limit - log;
+      } else {
+        return;
+      }
+      limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2011-2023 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.grpc;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.MethodDescriptor;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.ContextInternal;
+
+import java.util.concurrent.Executor;
+
+/**
+ * A client interceptor running the callbacks of a call on the Vert.x context that created the call, instead of the
+ * context of the channel. The callbacks received on the event loop of this context are dispatched without being
+ * queued, which is the case when the channel runs on this event loop, e.g with a channel pool.
+ *
+ * <p>Calls created outside a Vert.x context, or with an executor set in their options, are left unchanged.
+ */
+class CallerContextInterceptor implements ClientInterceptor {
+
+  static final CallerContextInterceptor INSTANCE = new CallerContextInterceptor();
+
+  private CallerContextInterceptor() {
+  }
+
+  @Override
+  public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+    ContextInternal context = (ContextInternal) Vertx.currentContext();
+    if (context != null && callOptions.getExecutor() == null) {
+      callOptions = callOptions.withExecutor(executor(context));
+    }
+    return next.newCall(method, callOptions);
+  }
+
+  private static Executor executor(ContextInternal context) {
+    return command -> {
+      if (context.isEventLoopContext() && context.nettyEventLoop().inEventLoop()) {
+        context.dispatch(event -> command.run());
+      } else {
+        context.runOnContext(event -> command.run());
+      }
+    };
+  }
+}
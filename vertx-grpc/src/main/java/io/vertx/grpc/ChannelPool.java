@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2011-2023 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.grpc;
+
+import io.grpc.CallOptions;
+import io.grpc.ClientCall;
+import io.grpc.ConnectivityState;
+import io.grpc.ManagedChannel;
+import io.grpc.MethodDescriptor;
+import io.netty.channel.EventLoop;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A channel spreading its calls over channels each running on a different event loop, a call uses the channel of
+ * the event loop it is created on, otherwise the channels are used in turn.
+ */
+class ChannelPool extends ManagedChannel {
+
+  private final ManagedChannel[] channels;
+  private final EventLoop[] eventLoops;
+  private final AtomicInteger pos = new AtomicInteger();
+
+  ChannelPool(List<ManagedChannel> channels, List<EventLoop> eventLoops) {
+    this.channels = channels.toArray(new ManagedChannel[0]);
+    this.eventLoops = eventLoops.toArray(new EventLoop[0]);
+  }
+
+  private ManagedChannel select() {
+    for (int i = 0; i < eventLoops.length; i++) {
+      if (eventLoops[i].inEventLoop()) {
+        return channels[i];
+      }
+    }
+    return channels[Math.floorMod(pos.getAndIncrement(), channels.length)];
+  }
+
+  @Override
+  public <ReqT, RespT> ClientCall<ReqT, RespT> newCall(MethodDescriptor<ReqT, RespT> methodDescriptor, CallOptions callOptions) {
+    return select().newCall(methodDescriptor, callOptions);
+  }
+
+  @Override
+  public String authority() {
+    return channels[0].authority();
+  }
+
+  @Override
+  public ManagedChannel shutdown() {
+    for (ManagedChannel channel : channels) {
+      channel.shutdown();
+    }
+    return this;
+  }
+
+  @Override
+  public ManagedChannel shutdownNow() {
+    for (ManagedChannel channel : channels) {
+      channel.shutdownNow();
+    }
+    return this;
+  }
+
+  @Override
+  public boolean isShutdown() {
+    for (ManagedChannel channel : channels) {
+      if (!channel.isShutdown()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public boolean isTerminated() {
+    for (ManagedChannel channel : channels) {
+      if (!channel.isTerminated()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    for (ManagedChannel channel : channels) {
+      if (!channel.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the most available state of the channels
+   */
+  @Override
+  public ConnectivityState getState(boolean requestConnection) {
+    ConnectivityState best = ConnectivityState.SHUTDOWN;
+    for (ManagedChannel channel : channels) {
+      ConnectivityState state = channel.getState(requestConnection);
+      if (rank(state) < rank(best)) {
+        best = state;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Run the {@code callback} once the aggregated state of the channels is no longer {@code source}.
+   */
+  @Override
+  public void notifyWhenStateChanged(ConnectivityState source, Runnable callback) {
+    if (getState(false) != source) {
+      callback.run();
+      return;
+    }
+    AtomicBoolean notified = new AtomicBoolean();
+    for (ManagedChannel channel : channels) {
+      watch(channel, source, notified, callback);
+    }
+  }
+
+  private void watch(ManagedChannel channel, ConnectivityState source, AtomicBoolean notified, Runnable callback) {
+    channel.notifyWhenStateChanged(channel.getState(false), () -> {
+      if (notified.get()) {
+        return;
+      }
+      if (getState(false) == source) {
+        // The change of this channel did not change the aggregated state
+        watch(channel, source, notified, callback);
+      } else if (notified.compareAndSet(false, true)) {
+        callback.run();
+      }
+    });
+  }
+
+  private static int rank(ConnectivityState state) {
+    switch (state) {
+      case READY:
+        return 0;
+      case CONNECTING:
+        return 1;
+      case IDLE:
+        return 2;
+      case TRANSIENT_FAILURE:
+        return 3;
+      default:
+        return 4;
+    }
+  }
+
+  @Override
+  public void resetConnectBackoff() {
+    for (ManagedChannel channel : channels) {
+      channel.resetConnectBackoff();
+    }
+  }
+
+  @Override
+  public void enterIdle() {
+    for (ManagedChannel channel : channels) {
+      channel.enterIdle();
+    }
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2011-2023 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.grpc;
+
+import io.grpc.Codec;
+import io.grpc.CompressorRegistry;
+import io.grpc.DecompressorRegistry;
+
+/**
+ * The codecs registered by default in the builders: gzip, and zstd and lz4 when their optional library is on the
+ * class path. The codec classes are only loaded when their library is available.
+ */
+class Codecs {
+
+  static final boolean ZSTD_AVAILABLE = zstdAvailable();
+  static final boolean LZ4_AVAILABLE = isPresent("net.jpountz.lz4.LZ4FrameOutputStream");
+
+  private static boolean isPresent(String className) {
+    try {
+      Class.forName(className, false, Codecs.class.getClassLoader());
+      return true;
+    } catch (Throwable ignore) {
+      return false;
+    }
+  }
+
+  private static boolean zstdAvailable() {
+    if (!isPresent("com.github.luben.zstd.ZstdOutputStream")) {
+      return false;
+    }
+    try {
+      // Load the native code, it may not be supported by the platform
+      Class.forName("com.github.luben.zstd.util.Native", true, Codecs.class.getClassLoader())
+        .getMethod("load")
+        .invoke(null);
+      return true;
+    } catch (Throwable ignore) {
+      return false;
+    }
+  }
+
+  static CompressorRegistry compressorRegistry() {
+    CompressorRegistry registry = CompressorRegistry.newEmptyInstance();
+    registry.register(new Codec.Gzip());
+    registry.register(Codec.Identity.NONE);
+    if (ZSTD_AVAILABLE) {
+      registry.register(new ZstdCodec());
+    }
+    if (LZ4_AVAILABLE) {
+      registry.register(new Lz4Codec());
+    }
+    return registry;
+  }
+
+  static DecompressorRegistry decompressorRegistry() {
+    DecompressorRegistry registry = DecompressorRegistry.getDefaultInstance();
+    if (ZSTD_AVAILABLE) {
+      registry = registry.with(new ZstdCodec(), true);
+    }
+    if (LZ4_AVAILABLE) {
+      registry = registry.with(new Lz4Codec(), true);
+    }
+    return registry;
+  }
+}
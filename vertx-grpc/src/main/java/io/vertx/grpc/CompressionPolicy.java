@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2011-2023 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.grpc;
+
+import com.google.protobuf.MessageLite;
+import io.grpc.ForwardingServerCall;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.netty.channel.EventLoop;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.grpc.spi.metrics.GrpcServerMetrics;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * A server interceptor deciding for each response message whether it is compressed, instead of compressing all the
+ * messages of a call: messages smaller than a threshold are sent uncompressed since the compression overhead
+ * outweighs the savings, and optionally messages sent while the event loop is busy.
+ *
+ * <p>The policy applies to the calls using a compression, either set by the policy with {@link #setEncoding(String)}
+ * or by the service, e.g with the generated {@code withCompression}. A message the service sends with compression
+ * disabled stays uncompressed.
+ *
+ * <p>The decisions are counted by the policy and also reported to the
+ * {@link io.vertx.grpc.spi.metrics.GrpcServerMetrics} of the server, per method.
+ */
+public class CompressionPolicy implements ServerInterceptor {
+
+  /**
+   * @return a new policy with the default settings
+   */
+  public static CompressionPolicy create() {
+    return new CompressionPolicy();
+  }
+
+  public static final int DEFAULT_MIN_SIZE = 1024;
+  public static final int DEFAULT_MAX_PENDING_TASKS = 0;
+
+  private String encoding;
+  private int minSize = DEFAULT_MIN_SIZE;
+  private int maxPendingTasks = DEFAULT_MAX_PENDING_TASKS;
+  private final LongAdder compressed = new LongAdder();
+  private final LongAdder skippedSize = new LongAdder();
+  private final LongAdder skippedBusy = new LongAdder();
+
+  private CompressionPolicy() {
+  }
+
+  /**
+   * Set the compression of the calls, e.g {@code gzip}, when not set the calls use the compression set by the
+   * service.
+   *
+   * @param encoding the encoding
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CompressionPolicy setEncoding(String encoding) {
+    this.encoding = encoding;
+    return this;
+  }
+
+  /**
+   * Set the size in bytes under which a message is not compressed.
+   *
+   * @param minSize the min size
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CompressionPolicy setMinSize(int minSize) {
+    if (minSize < 0) {
+      throw new IllegalArgumentException("Min size must be >= 0");
+    }
+    this.minSize = minSize;
+    return this;
+  }
+
+  /**
+   * Set the number of tasks pending on the event loop above which the event loop is considered busy, messages are
+   * not compressed while the event loop is busy. The default value {@code 0} disables this check.
+   *
+   * @param maxPendingTasks the max number of pending tasks
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CompressionPolicy setMaxPendingTasks(int maxPendingTasks) {
+    if (maxPendingTasks < 0) {
+      throw new IllegalArgumentException("Max pending tasks must be >= 0");
+    }
+    this.maxPendingTasks = maxPendingTasks;
+    return this;
+  }
+
+  /**
+   * @return the number of messages the policy let be compressed
+   */
+  public long compressed() {
+    return compressed.sum();
+  }
+
+  /**
+   * @return the number of messages not compressed because they were smaller than the min size
+   */
+  public long skippedSize() {
+    return skippedSize.sum();
+  }
+
+  /**
+   * @return the number of messages not compressed because the event loop was busy
+   */
+  public long skippedBusy() {
+    return skippedBusy.sum();
+  }
+
+  @Override
+  public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+    if (encoding != null) {
+      call.setCompression(encoding);
+    }
+    Consumer<GrpcServerMetrics.CompressionDecision> reporter = MetricsServerInterceptor.compressionReporter();
+    return next.startCall(new ForwardingServerCall.SimpleForwardingServerCall<ReqT, RespT>(call) {
+      private boolean messageCompression = true;
+      @Override
+      public void sendMessage(RespT message) {
+        // The policy only decides for the messages the service lets be compressed
+        super.setMessageCompression(messageCompression && shouldCompress(message, reporter));
+        super.sendMessage(message);
+      }
+      @Override
+      public void setMessageCompression(boolean enabled) {
+        messageCompression = enabled;
+      }
+    }, headers);
+  }
+
+  private boolean shouldCompress(Object message, Consumer<GrpcServerMetrics.CompressionDecision> reporter) {
+    GrpcServerMetrics.CompressionDecision decision;
+    if (size(message) < minSize) {
+      skippedSize.increment();
+      decision = GrpcServerMetrics.CompressionDecision.SKIPPED_SIZE;
+    } else if (maxPendingTasks > 0 && isBusy()) {
+      skippedBusy.increment();
+      decision = GrpcServerMetrics.CompressionDecision.SKIPPED_BUSY;
+    } else {
+      compressed.increment();
+      decision = GrpcServerMetrics.CompressionDecision.COMPRESSED;
+    }
+    if (reporter != null) {
+      reporter.accept(decision);
+    }
+    return decision == GrpcServerMetrics.CompressionDecision.COMPRESSED;
+  }
+
+  private static int size(Object message) {
+    if (message instanceof MessageLite) {
+      // Memoized by the message and reused when it is serialized
+      return ((MessageLite) message).getSerializedSize();
+    } else if (message instanceof InputStream) {
+      try {
+        return ((InputStream) message).available();
+      } catch (IOException ignore) {
+      }
+    }
+    return Integer.MAX_VALUE;
+  }
+
+  private boolean isBusy() {
+    Context context = Vertx.currentContext();
+    if (context == null || !context.isEventLoopContext()) {
+      return false;
+    }
+    EventLoop eventLoop = ((ContextInternal) context).nettyEventLoop();
+    return eventLoop instanceof SingleThreadEventExecutor && ((SingleThreadEventExecutor) eventLoop).pendingTasks() > maxPendingTasks;
+  }
+}
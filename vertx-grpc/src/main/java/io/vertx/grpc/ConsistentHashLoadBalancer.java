@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2011-2023 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.grpc;
+
+import io.grpc.EquivalentAddressGroup;
+import io.grpc.InternalMetadata;
+import io.grpc.Metadata;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A consistent hash load balancer placing all the subchannels on a hash ring, a call uses the subchannel owning the
+ * first ready point following the hash of its key. A subchannel that is not ready only moves its keys to the next
+ * points of the ring, the ring is built again only when the subchannels or the config change.
+ */
+class ConsistentHashLoadBalancer extends SubchannelLoadBalancer {
+
+  private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+  private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+  /**
+   * Parses the ASCII header values as their bytes, the value stored by the metadata is returned without a copy.
+   */
+  private static final InternalMetadata.TrustedAsciiMarshaller<byte[]> RAW_MARSHALLER = new InternalMetadata.TrustedAsciiMarshaller<byte[]>() {
+    @Override
+    public byte[] toAsciiString(byte[] value) {
+      return value;
+    }
+    @Override
+    public byte[] parseAsciiString(byte[] serialized) {
+      return serialized;
+    }
+  };
+
+  private Config config = new Config(null, ConsistentHashLoadBalancerProvider.DEFAULT_REPLICAS);
+  private Ring ring;
+
+  ConsistentHashLoadBalancer(Helper helper) {
+    super(helper);
+  }
+
+  @Override
+  public void handleResolvedAddresses(ResolvedAddresses resolvedAddresses) {
+    Object policyConfig = resolvedAddresses.getLoadBalancingPolicyConfig();
+    if (policyConfig instanceof Config) {
+      config = (Config) policyConfig;
+    }
+    super.handleResolvedAddresses(resolvedAddresses);
+  }
+
+  @Override
+  SubchannelPicker newPicker(List<Subchannel> ready, Collection<Subchannel> all) {
+    if (ring == null || ring.replicas != config.replicas || !ring.members.equals(new HashSet<>(all))) {
+      ring = new Ring(all, config.replicas);
+    }
+    return new Picker(ring, config.header, new HashSet<>(ready));
+  }
+
+  /**
+   * The FNV-1a hash of the characters of a string, the ASCII characters are hashed as a single byte so a string and
+   * its header value have the same hash.
+   */
+  private static long hash(String s) {
+    long hash = FNV_OFFSET;
+    for (int i = 0;i < s.length();i++) {
+      char c = s.charAt(i);
+      if (c >= 0x80) {
+        hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+      }
+      hash = (hash ^ (c & 0xFF)) * FNV_PRIME;
+    }
+    return mix(hash);
+  }
+
+  private static long hash(byte[] bytes) {
+    return mix(fnv(FNV_OFFSET, bytes));
+  }
+
+  /**
+   * The hash of the IP addresses and ports of a subchannel, which does not depend on how the addresses are printed.
+   */
+  private static long hash(EquivalentAddressGroup group) {
+    long hash = FNV_OFFSET;
+    for (SocketAddress address : group.getAddresses()) {
+      if (address instanceof InetSocketAddress && !((InetSocketAddress) address).isUnresolved()) {
+        InetSocketAddress inet = (InetSocketAddress) address;
+        hash = fnv(hash, inet.getAddress().getAddress());
+        hash = (hash ^ (inet.getPort() >>> 8)) * FNV_PRIME;
+        hash = (hash ^ (inet.getPort() & 0xFF)) * FNV_PRIME;
+      } else {
+        hash = fnv(hash, address.toString().getBytes(StandardCharsets.UTF_8));
+      }
+    }
+    return mix(hash);
+  }
+
+  private static long fnv(long hash, byte[] bytes) {
+    for (byte b : bytes) {
+      hash = (hash ^ (b & 0xFF)) * FNV_PRIME;
+    }
+    return hash;
+  }
+
+  /**
+   * The murmur3 finalizer, spreading the hashes over the whole ring.
+   */
+  private static long mix(long hash) {
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+
+  /**
+   * The points of all the subchannels sorted by hash.
+   */
+  private static class Ring {
+
+    private final int replicas;
+    private final Set<Subchannel> members;
+    private final long[] points;
+    private final Subchannel[] subchannels;
+
+    Ring(Collection<Subchannel> all, int replicas) {
+      // The points only depend on the address, the order of the subchannels does not matter
+      TreeMap<Long, Subchannel> ring = new TreeMap<>();
+      for (Subchannel subchannel : all) {
+        long hash = hash(subchannel.getAddresses());
+        for (int i = 0;i < replicas;i++) {
+          ring.put(mix(hash + i * GOLDEN_GAMMA), subchannel);
+        }
+      }
+      this.replicas = replicas;
+      this.members = new HashSet<>(all);
+      this.points = new long[ring.size()];
+      this.subchannels = new Subchannel[ring.size()];
+      int index = 0;
+      for (Map.Entry<Long, Subchannel> point : ring.entrySet()) {
+        points[index] = point.getKey();
+        subchannels[index++] = point.getValue();
+      }
+    }
+  }
+
+  private static class Picker extends SubchannelPicker {
+
+    private final Metadata.Key<byte[]> header;
+    private final long[] points;
+    private final PickResult[] results;
+    private final PickResult[] ready;
+
+    Picker(Ring ring, Metadata.Key<byte[]> header, Set<Subchannel> readySubchannels) {
+      Map<Subchannel, PickResult> resultMap = new HashMap<>();
+      for (Subchannel subchannel : readySubchannels) {
+        resultMap.put(subchannel, PickResult.withSubchannel(subchannel));
+      }
+      this.header = header;
+      points = ring.points;
+      // The points of the subchannels that are not ready have no result
+      results = new PickResult[points.length];
+      for (int i = 0;i < points.length;i++) {
+        results[i] = resultMap.get(ring.subchannels[i]);
+      }
+      ready = resultMap.values().toArray(new PickResult[0]);
+    }
+
+    @Override
+    public PickResult pickSubchannel(PickSubchannelArgs args) {
+      String key = args.getCallOptions().getOption(ConsistentHashLoadBalancerProvider.HASH_KEY);
+      long hash;
+      if (key != null) {
+        hash = hash(key);
+      } else {
+        byte[] value = header != null ? args.getHeaders().get(header) : null;
+        if (value == null) {
+          return ready[ThreadLocalRandom.current().nextInt(ready.length)];
+        }
+        hash = hash(value);
+      }
+      int index = Arrays.binarySearch(points, hash);
+      if (index < 0) {
+        index = -index - 1;
+      }
+      // Walk the ring to the first ready point, wrapping around
+      for (int i = 0;i < points.length;i++) {
+        PickResult result = results[(index + i) % points.length];
+        if (result != null) {
+          return result;
+        }
+      }
+      return ready[0];
+    }
+  }
+
+  static class Config {
+
+    private final Metadata.Key<byte[]> header;
+    private final int replicas;
+
+    Config(String header, int replicas) {
+      if (header == null) {
+        this.header = null;
+      } else if (header.endsWith(Metadata.BINARY_HEADER_SUFFIX)) {
+        this.header = Metadata.Key.of(header, Metadata.BINARY_BYTE_MARSHALLER);
+      } else {
+        this.header = InternalMetadata.keyOf(header, RAW_MARSHALLER);
+      }
+      this.replicas = replicas;
+    }
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2011-2023 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.grpc;
+
+import io.grpc.CallOptions;
+import io.grpc.LoadBalancer;
+import io.grpc.LoadBalancerProvider;
+import io.grpc.NameResolver;
+import io.grpc.Status;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The provider of the {@code consistent_hash} load balancing policy, routing the calls with the same hash key to the
+ * same backend, which improves the hit rate of backends caching the data of the keys.
+ *
+ * <p>The hash key of a call is the {@link #HASH_KEY} call option when it is set, otherwise the value of the configured
+ * metadata header. The calls without a key are spread randomly over the backends.
+ *
+ * <p>The backends are placed on a hash ring with a number of points per backend derived from their IP address and
+ * port, so adding or removing a backend only moves the keys of the arc it owns and all the channels of the same
+ * backends use the same ring. The keys of a backend that is not ready go to the next ready backend of the ring. The lookups hash the key and binary search the ring without allocating.
+ *
+ * <p>The policy can be selected with {@link VertxChannelBuilder#consistentHash(String)} or with a service config
+ * such as:
+ *
+ * <pre>
+ * { "loadBalancingConfig": [ { "consistent_hash": { "header": "x-user-id", "replicas": 100 } } ] }
+ * </pre>
+ *
+ * <p>Both settings are optional, the replicas are between 1 and {@link #MAX_REPLICAS}.
+ */
+public class ConsistentHashLoadBalancerProvider extends LoadBalancerProvider {
+
+  public static final String POLICY_NAME = "consistent_hash";
+  public static final int DEFAULT_REPLICAS = 100;
+  public static final int MAX_REPLICAS = 1000;
+
+  /**
+   * The call option setting the hash key of a call, it takes precedence over the header.
+   */
+  public static final CallOptions.Key<String> HASH_KEY = CallOptions.Key.create("vertx-hash-key");
+
+  /**
+   * Create the service config selecting the policy.
+   *
+   * @param header the metadata header hashed by the policy or {@code null}
+   * @return the service config
+   */
+  static Map<String, ?> serviceConfig(String header) {
+    Map<String, Object> config = new HashMap<>();
+    if (header != null) {
+      config.put("header", header);
+    }
+    return Collections.singletonMap("loadBalancingConfig", Collections.singletonList(Collections.singletonMap(POLICY_NAME, config)));
+  }
+
+  @Override
+  public boolean isAvailable() {
+    return true;
+  }
+
+  @Override
+  public int getPriority() {
+    return 5;
+  }
+
+  @Override
+  public String getPolicyName() {
+    return POLICY_NAME;
+  }
+
+  @Override
+  public LoadBalancer newLoadBalancer(LoadBalancer.Helper helper) {
+    return new ConsistentHashLoadBalancer(helper);
+  }
+
+  @Override
+  public NameResolver.ConfigOrError parseLoadBalancingPolicyConfig(Map<String, ?> rawConfig) {
+    Object header = rawConfig.get("header");
+    Object replicas = rawConfig.getOrDefault("replicas", (double) DEFAULT_REPLICAS);
+    if (header != null && !(header instanceof String)) {
+      return NameResolver.ConfigOrError.fromError(Status.INVALID_ARGUMENT.withDescription("Invalid header " + header));
+    }
+    if (!(replicas instanceof Double) || (Double) replicas < 1D || (Double) replicas > MAX_REPLICAS) {
+      return NameResolver.ConfigOrError.fromError(Status.INVALID_ARGUMENT.withDescription("Invalid replicas " + replicas));
+    }
+    try {
+      return NameResolver.ConfigOrError.fromConfig(new ConsistentHashLoadBalancer.Config((String) header, ((Double) replicas).intValue()));
+    } catch (IllegalArgumentException e) {
+      return NameResolver.ConfigOrError.fromError(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).withCause(e));
+    }
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2011-2023 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.grpc;
+
+import java.net.SocketAddress;
+
+/**
+ * The HTTP/2 flow control windows of a connection, at the time they were sampled.
+ */
+public class FlowControlWindow {
+
+  private final SocketAddress remoteAddress;
+  private final long localWindow;
+  private final long remoteWindow;
+
+  FlowControlWindow(SocketAddress remoteAddress, long localWindow, long remoteWindow) {
+    this.remoteAddress = remoteAddress;
+    this.localWindow = localWindow;
+    this.remoteWindow = remoteWindow;
+  }
+
+  /**
+   * @return the address of the peer of the connection
+   */
+  public SocketAddress remoteAddress() {
+    return remoteAddress;
+  }
+
+  /**
+   * @return the window granted to the peer for sending data on the connection, this is the window grown by the
+   * automatic flow control, or {@code -1} when unknown
+   */
+  public long localWindow() {
+    return localWindow;
+  }
+
+  /**
+   * @return the window granted by the peer for sending data on the connection, or {@code -1} when unknown
+   */
+  public long remoteWindow() {
+    return remoteWindow;
+  }
+
+  @Override
+  public String toString() {
+    return "FlowControlWindow[remoteAddress=" + remoteAddress + ",localWindow=" + localWindow + ",remoteWindow=" + remoteWindow + "]";
+  }
+}
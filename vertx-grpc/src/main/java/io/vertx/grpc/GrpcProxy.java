@@ -0,0 +1,422 @@
+/*
+ * Copyright (c) 2011-2023 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.grpc;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.Context;
+import io.grpc.Detachable;
+import io.grpc.Drainable;
+import io.grpc.HandlerRegistry;
+import io.grpc.KnownLength;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerMethodDefinition;
+import io.grpc.Status;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * A handler registry forwarding the calls of any method to a channel, the messages are forwarded as raw bytes
+ * without being parsed.
+ *
+ * <p>The proxy is meant to be the fallback registry of a server, it handles the methods that are not implemented
+ * by the services of the server:
+ *
+ * <pre>
+ *   VertxServerBuilder.forPort(vertx, port).fallbackHandlerRegistry(GrpcProxy.create(channel))
+ * </pre>
+ *
+ * <p>The flow control is kept end-to-end: a message is only requested from one side when the other side is ready to
+ * send it. The message buffers received from the transport are handed over to the other side instead of being
+ * copied. The requests are kept until the response headers are received, so a retry of the call by the channel can
+ * send them again.
+ */
+public class GrpcProxy extends HandlerRegistry {
+
+  /**
+   * Create a proxy forwarding all calls to the same {@code channel}.
+   *
+   * @param channel the channel
+   * @return the proxy
+   */
+  public static GrpcProxy create(Channel channel) {
+    return create((methodName, headers) -> channel);
+  }
+
+  /**
+   * Create a proxy forwarding each call to the channel chosen by the {@code selector}, from the full method name
+   * and the headers of the call. When the selector returns {@code null} the call fails with {@code UNIMPLEMENTED}.
+   *
+   * @param selector the channel selector
+   * @return the proxy
+   */
+  public static GrpcProxy create(BiFunction<String, Metadata, Channel> selector) {
+    return new GrpcProxy(selector);
+  }
+
+  private final BiFunction<String, Metadata, Channel> selector;
+  private final ServerCallHandler<InputStream, InputStream> handler = this::startCall;
+
+  private GrpcProxy(BiFunction<String, Metadata, Channel> selector) {
+    this.selector = selector;
+  }
+
+  @Override
+  public ServerMethodDefinition<?, ?> lookupMethod(String methodName, String authority) {
+    MethodDescriptor<InputStream, InputStream> method = MethodDescriptor.newBuilder(RawMarshaller.INSTANCE, RawMarshaller.INSTANCE)
+      .setFullMethodName(methodName)
+      .setType(MethodDescriptor.MethodType.UNKNOWN)
+      .build();
+    return ServerMethodDefinition.create(method, handler);
+  }
+
+  private ServerCall.Listener<InputStream> startCall(ServerCall<InputStream, InputStream> serverCall, Metadata headers) {
+    MethodDescriptor<InputStream, InputStream> method = serverCall.getMethodDescriptor();
+    Channel channel = selector.apply(method.getFullMethodName(), headers);
+    if (channel == null) {
+      serverCall.close(Status.UNIMPLEMENTED.withDescription("Method not found: " + method.getFullMethodName()), new Metadata());
+      return new ServerCall.Listener<InputStream>() {
+      };
+    }
+    CallOptions options = CallOptions.DEFAULT.withDeadline(Context.current().getDeadline());
+    ClientCall<InputStream, InputStream> clientCall = channel.newCall(method, options);
+    ProxyCall call = new ProxyCall(serverCall, clientCall);
+    clientCall.start(call.responses, headers);
+    serverCall.request(1);
+    clientCall.request(1);
+    return call.requests;
+  }
+
+  /**
+   * The state of a forwarded call, each side requests a message from the other side when it has sent the previous
+   * one and is still ready, otherwise it waits to be ready again.
+   */
+  private static class ProxyCall {
+
+    private final ServerCall<InputStream, InputStream> serverCall;
+    private final ClientCall<InputStream, InputStream> clientCall;
+    private final RequestListener requests = new RequestListener();
+    private final ResponseListener responses = new ResponseListener();
+
+    ProxyCall(ServerCall<InputStream, InputStream> serverCall, ClientCall<InputStream, InputStream> clientCall) {
+      this.serverCall = serverCall;
+      this.clientCall = clientCall;
+    }
+
+    private class RequestListener extends ServerCall.Listener<InputStream> {
+
+      private boolean needToRequest;
+
+      @Override
+      public void onMessage(InputStream message) {
+        try {
+          clientCall.sendMessage(message);
+        } catch (RuntimeException e) {
+          closeQuietly(message);
+          throw e;
+        }
+        responses.sent(message);
+        synchronized (this) {
+          if (clientCall.isReady()) {
+            serverCall.request(1);
+          } else {
+            needToRequest = true;
+          }
+        }
+      }
+
+      @Override
+      public void onHalfClose() {
+        clientCall.halfClose();
+      }
+
+      @Override
+      public void onCancel() {
+        clientCall.cancel("Server cancelled", null);
+      }
+
+      @Override
+      public void onReady() {
+        responses.resume();
+      }
+
+      synchronized void resume() {
+        if (needToRequest) {
+          needToRequest = false;
+          serverCall.request(1);
+        }
+      }
+    }
+
+    private class ResponseListener extends ClientCall.Listener<InputStream> {
+
+      private final List<InputStream> sent = new ArrayList<>();
+      private boolean committed;
+      private boolean needToRequest;
+
+      /**
+       * Keep a request sent to the client call until the call is committed, since a retry sends it again.
+       */
+      synchronized void sent(InputStream request) {
+        if (committed) {
+          closeQuietly(request);
+        } else {
+          sent.add(request);
+        }
+      }
+
+      /**
+       * The call cannot be retried once the response headers are received or the call is closed.
+       */
+      synchronized void commit() {
+        if (!committed) {
+          committed = true;
+          sent.forEach(GrpcProxy::closeQuietly);
+          sent.clear();
+        }
+      }
+
+      @Override
+      public void onHeaders(Metadata headers) {
+        commit();
+        serverCall.sendHeaders(headers);
+      }
+
+      @Override
+      public void onMessage(InputStream message) {
+        try {
+          serverCall.sendMessage(message);
+        } finally {
+          closeQuietly(message);
+        }
+        synchronized (this) {
+          if (serverCall.isReady()) {
+            clientCall.request(1);
+          } else {
+            needToRequest = true;
+          }
+        }
+      }
+
+      @Override
+      public void onClose(Status status, Metadata trailers) {
+        commit();
+        serverCall.close(status, trailers);
+      }
+
+      @Override
+      public void onReady() {
+        requests.resume();
+      }
+
+      synchronized void resume() {
+        if (needToRequest) {
+          needToRequest = false;
+          clientCall.request(1);
+        }
+      }
+    }
+  }
+
+  private static void closeQuietly(InputStream stream) {
+    try {
+      stream.close();
+    } catch (IOException ignore) {
+    }
+  }
+
+  /**
+   * Marshall the messages as the stream of their raw bytes, the stream received from the transport is detached so
+   * the message owns the transport buffers until it is closed along with the streams written to the other side.
+   */
+  private static class RawMarshaller implements MethodDescriptor.Marshaller<InputStream> {
+
+    static final RawMarshaller INSTANCE = new RawMarshaller();
+
+    @Override
+    public InputStream stream(InputStream value) {
+      // A retried call streams the same message again, each attempt is given its own view of the message
+      return value instanceof RawMessage ? ((RawMessage) value).duplicate() : value;
+    }
+
+    @Override
+    public InputStream parse(InputStream stream) {
+      try {
+        if (stream instanceof Detachable) {
+          InputStream detached = ((Detachable) stream).detach();
+          if (detached.markSupported()) {
+            return new RawMessage(new RawBytes(detached));
+          }
+          stream = detached;
+        }
+        int length = stream.available();
+        byte[] bytes = new byte[length];
+        int read = 0;
+        while (read < length) {
+          int amount = stream.read(bytes, read, length - read);
+          if (amount == -1) {
+            break;
+          }
+          read += amount;
+        }
+        stream.close();
+        return new RawMessage(new RawBytes(new ByteArrayInputStream(bytes, 0, read)));
+      } catch (IOException e) {
+        throw Status.INTERNAL.withDescription("Invalid message").withCause(e).asRuntimeException();
+      }
+    }
+  }
+
+  /**
+   * The bytes of a message shared by its views, they are read from a stream marked at the start of the message and
+   * released when the last view is closed.
+   */
+  private static class RawBytes {
+
+    private static final ThreadLocal<byte[]> CHUNK = ThreadLocal.withInitial(() -> new byte[8192]);
+
+    private final InputStream stream;
+    private final int length;
+    private int refCount = 1;
+
+    RawBytes(InputStream stream) throws IOException {
+      // Marked buffers are not released when read, they remain valid until the stream is closed
+      stream.mark(Integer.MAX_VALUE);
+      this.stream = stream;
+      this.length = stream.available();
+    }
+
+    synchronized void retain() {
+      if (refCount == 0) {
+        throw Status.INTERNAL.withDescription("Message already released").asRuntimeException();
+      }
+      refCount++;
+    }
+
+    synchronized void release() throws IOException {
+      if (refCount > 0 && --refCount == 0) {
+        stream.close();
+      }
+    }
+
+    private void seek(int position) throws IOException {
+      if (refCount == 0) {
+        throw new IOException("Message already released");
+      }
+      stream.reset();
+      int skipped = 0;
+      while (skipped < position) {
+        long amount = stream.skip(position - skipped);
+        if (amount <= 0) {
+          throw new EOFException();
+        }
+        skipped += amount;
+      }
+    }
+
+    synchronized int read(int position, byte[] b, int off, int len) throws IOException {
+      seek(position);
+      return stream.read(b, off, len);
+    }
+
+    synchronized int drainTo(int position, OutputStream target) throws IOException {
+      seek(position);
+      byte[] chunk = CHUNK.get();
+      int total = 0;
+      int amount;
+      while ((amount = stream.read(chunk, 0, chunk.length)) != -1) {
+        target.write(chunk, 0, amount);
+        total += amount;
+      }
+      return total;
+    }
+  }
+
+  /**
+   * A view of a raw message with its own position, drained to the transport with a per thread chunk instead of a
+   * chunk allocated for each message.
+   */
+  private static class RawMessage extends InputStream implements Drainable, KnownLength {
+
+    private final RawBytes bytes;
+    private int position;
+    private boolean closed;
+
+    RawMessage(RawBytes bytes) {
+      this.bytes = bytes;
+    }
+
+    RawMessage duplicate() {
+      bytes.retain();
+      return new RawMessage(bytes);
+    }
+
+    @Override
+    public int drainTo(OutputStream target) throws IOException {
+      if (position == bytes.length) {
+        return 0;
+      }
+      int amount = bytes.drainTo(position, target);
+      position = bytes.length;
+      return amount;
+    }
+
+    @Override
+    public int read() throws IOException {
+      byte[] b = new byte[1];
+      return read(b, 0, 1) == 1 ? b[0] & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (position == bytes.length) {
+        return -1;
+      }
+      if (len == 0) {
+        return 0;
+      }
+      int amount = bytes.read(position, b, off, len);
+      if (amount > 0) {
+        position += amount;
+      }
+      return amount;
+    }
+
+    @Override
+    public int available() {
+      return bytes.length - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (!closed) {
+        closed = true;
+        bytes.release();
+      }
+    }
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2011-2023 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.grpc;
+
+import io.grpc.Metadata;
+import io.grpc.ServerStreamTracer;
+import io.grpc.Status;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.EventLoop;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import io.vertx.core.net.impl.VertxEventLoopGroup;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An event loop group placing each new connection on the worker with the fewest active streams, instead of a
+ * round-robin. Ties are broken by the number of open connections, then by the number of tasks pending on the event
+ * loops.
+ *
+ * <p>The streams are counted by the tracers of {@link #streamTracerFactory()}, which must be added to the server.
+ */
+class LeastLoadedEventLoopGroup extends VertxEventLoopGroup {
+
+  private static class Worker {
+
+    final EventLoop eventLoop;
+    final AtomicInteger connections = new AtomicInteger();
+    final AtomicInteger streams = new AtomicInteger();
+    int refs = 1;
+
+    Worker(EventLoop eventLoop) {
+      this.eventLoop = eventLoop;
+    }
+
+    int pendingTasks() {
+      if (eventLoop instanceof SingleThreadEventExecutor) {
+        return ((SingleThreadEventExecutor) eventLoop).pendingTasks();
+      }
+      return 0;
+    }
+  }
+
+  // Iterated without lock by the event loops creating streams
+  private final List<Worker> workers = new CopyOnWriteArrayList<>();
+  private int pos;
+
+  @Override
+  public synchronized void addWorker(EventLoop worker) {
+    super.addWorker(worker);
+    Worker w = find(worker);
+    if (w == null) {
+      workers.add(new Worker(worker));
+    } else {
+      w.refs++;
+    }
+  }
+
+  @Override
+  public synchronized void removeWorker(EventLoop worker) {
+    super.removeWorker(worker);
+    Worker w = find(worker);
+    if (w != null && --w.refs == 0) {
+      workers.remove(w);
+    }
+  }
+
+  private Worker find(EventLoop eventLoop) {
+    for (Worker worker : workers) {
+      if (worker.eventLoop == eventLoop) {
+        return worker;
+      }
+    }
+    return null;
+  }
+
+  private synchronized Worker leastLoaded() {
+    int size = workers.size();
+    if (size == 0) {
+      return null;
+    }
+    // Start from a rotating position so equally loaded workers are used in turn
+    int start = pos++ % size;
+    if (pos < 0) {
+      pos = 0;
+    }
+    Worker best = null;
+    int bestStreams = 0;
+    int bestConnections = 0;
+    int bestTasks = 0;
+    for (int i = 0;i < size;i++) {
+      Worker worker = workers.get((start + i) % size);
+      int streams = worker.streams.get();
+      int connections = worker.connections.get();
+      if (best == null || streams < bestStreams || (streams == bestStreams && connections < bestConnections)) {
+        best = worker;
+        bestStreams = streams;
+        bestConnections = connections;
+        bestTasks = -1;
+      } else if (streams == bestStreams && connections == bestConnections) {
+        if (bestTasks < 0) {
+          bestTasks = best.pendingTasks();
+        }
+        int tasks = worker.pendingTasks();
+        if (tasks < bestTasks) {
+          best = worker;
+          bestTasks = tasks;
+        }
+      }
+    }
+    return best;
+  }
+
+  @Override
+  public EventLoop next() {
+    Worker worker = leastLoaded();
+    return worker != null ? worker.eventLoop : super.next();
+  }
+
+  @Override
+  public ChannelFuture register(Channel channel) {
+    Worker worker = leastLoaded();
+    if (worker == null) {
+      return super.register(channel);
+    }
+    worker.connections.incrementAndGet();
+    channel.closeFuture().addListener(future -> worker.connections.decrementAndGet());
+    return worker.eventLoop.register(channel);
+  }
+
+  /**
+   * @return a factory of tracers counting the active streams of the workers
+   */
+  ServerStreamTracer.Factory streamTracerFactory() {
+    return new ServerStreamTracer.Factory() {
+      @Override
+      public ServerStreamTracer newServerStreamTracer(String fullMethodName, Metadata headers) {
+        // Streams are created by the event loop of their connection
+        for (Worker worker : workers) {
+          if (worker.eventLoop.inEventLoop()) {
+            worker.streams.incrementAndGet();
+            return new ServerStreamTracer() {
+              @Override
+              public void streamClosed(Status status) {
+                worker.streams.decrementAndGet();
+              }
+            };
+          }
+        }
+        return new ServerStreamTracer() {
+        };
+      }
+    };
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2011-2023 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.grpc;
+
+import io.grpc.Attributes;
+import io.grpc.ClientStreamTracer;
+import io.grpc.Metadata;
+import io.grpc.Status;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A power of two choices least request load balancer: each call picks two random ready subchannels and uses the one
+ * with the fewest outstanding calls.
+ */
+class LeastRequestLoadBalancer extends SubchannelLoadBalancer {
+
+  private static final Attributes.Key<Outstanding> OUTSTANDING = Attributes.Key.create("vertx-outstanding-calls");
+
+  LeastRequestLoadBalancer(Helper helper) {
+    super(helper);
+  }
+
+  @Override
+  void initSubchannel(Attributes.Builder attributes) {
+    attributes.set(OUTSTANDING, new Outstanding());
+  }
+
+  @Override
+  SubchannelPicker newPicker(List<Subchannel> ready, Collection<Subchannel> all) {
+    return new Picker(ready);
+  }
+
+  private static class Picker extends SubchannelPicker {
+
+    private final Subchannel[] subchannels;
+    private final Outstanding[] outstanding;
+
+    Picker(List<Subchannel> ready) {
+      subchannels = ready.toArray(new Subchannel[0]);
+      outstanding = new Outstanding[subchannels.length];
+      for (int i = 0;i < subchannels.length;i++) {
+        outstanding[i] = subchannels[i].getAttributes().get(OUTSTANDING);
+      }
+    }
+
+    @Override
+    public PickResult pickSubchannel(PickSubchannelArgs args) {
+      int index = 0;
+      int size = subchannels.length;
+      if (size > 1) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+          second++;
+        }
+        index = outstanding[second].count.get() < outstanding[first].count.get() ? second : first;
+      }
+      return PickResult.withSubchannel(subchannels[index], outstanding[index]);
+    }
+  }
+
+  /**
+   * The outstanding calls of a subchannel, counted when a stream is created on the subchannel until it closes.
+   *
+   * <p>A pick that does not create a stream, e.g when the call is cancelled or the pick is retried, is not counted.
+   */
+  private static class Outstanding extends ClientStreamTracer.Factory {
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public ClientStreamTracer newClientStreamTracer(ClientStreamTracer.StreamInfo info, Metadata headers) {
+      count.incrementAndGet();
+      return new ClientStreamTracer() {
+        @Override
+        public void streamClosed(Status status) {
+          count.decrementAndGet();
+        }
+      };
+    }
+  }
+}
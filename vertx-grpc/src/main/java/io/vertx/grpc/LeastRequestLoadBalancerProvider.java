@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2011-2023 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.grpc;
+
+import io.grpc.LoadBalancer;
+import io.grpc.LoadBalancerProvider;
+
+/**
+ * The provider of the {@code least_request} load balancing policy, a power of two choices balancer sending each call
+ * to the less loaded of two random ready backends, the load of a backend being its number of outstanding calls.
+ *
+ * <p>Unlike round robin, the slow backends receive fewer calls since their calls stay outstanding longer, which
+ * reduces the tail latency when the backends do not perform evenly.
+ *
+ * <p>The provider is registered with the {@code ServiceLoader} so the policy can be selected by name with
+ * {@link VertxChannelBuilder#defaultLoadBalancingPolicy(String)} or with a service config.
+ */
+public class LeastRequestLoadBalancerProvider extends LoadBalancerProvider {
+
+  public static final String POLICY_NAME = "least_request";
+
+  @Override
+  public boolean isAvailable() {
+    return true;
+  }
+
+  @Override
+  public int getPriority() {
+    return 5;
+  }
+
+  @Override
+  public String getPolicyName() {
+    return POLICY_NAME;
+  }
+
+  @Override
+  public LoadBalancer newLoadBalancer(LoadBalancer.Helper helper) {
+    return new LeastRequestLoadBalancer(helper);
+  }
+}
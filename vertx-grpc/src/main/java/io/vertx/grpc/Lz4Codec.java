@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2011-2023 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.grpc;
+
+import io.grpc.Codec;
+import net.jpountz.lz4.LZ4FrameInputStream;
+import net.jpountz.lz4.LZ4FrameOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Objects;
+
+/**
+ * The {@code lz4} message encoding using the LZ4 frame format, it compresses less than gzip but is much cheaper to
+ * compress and decompress.
+ *
+ * <p>This requires the optional {@code org.lz4:lz4-java} dependency.
+ */
+public class Lz4Codec implements Codec {
+
+  /**
+   * The name of the encoding.
+   */
+  public static final String ENCODING = "lz4";
+
+  /**
+   * The default block size, the LZ4 default of 4MB would allocate two 4MB buffers for each message.
+   */
+  public static final LZ4FrameOutputStream.BLOCKSIZE DEFAULT_BLOCK_SIZE = LZ4FrameOutputStream.BLOCKSIZE.SIZE_64KB;
+
+  private final LZ4FrameOutputStream.BLOCKSIZE blockSize;
+
+  /**
+   * Create a codec compressing with the default block size.
+   */
+  public Lz4Codec() {
+    this(DEFAULT_BLOCK_SIZE);
+  }
+
+  /**
+   * Create a codec compressing with a given {@code blockSize}, larger blocks compress large messages better at the
+   * cost of larger buffers.
+   *
+   * @param blockSize the block size
+   */
+  public Lz4Codec(LZ4FrameOutputStream.BLOCKSIZE blockSize) {
+    this.blockSize = Objects.requireNonNull(blockSize);
+  }
+
+  @Override
+  public String getMessageEncoding() {
+    return ENCODING;
+  }
+
+  @Override
+  public OutputStream compress(OutputStream os) throws IOException {
+    return new LZ4FrameOutputStream(os, blockSize);
+  }
+
+  @Override
+  public InputStream decompress(InputStream is) throws IOException {
+    return new LZ4FrameInputStream(is);
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2011-2023 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.grpc;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.vertx.grpc.spi.metrics.GrpcClientMetrics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Reports the calls of a channel to its {@link GrpcClientMetrics}.
+ */
+class MetricsClientInterceptor<M> implements ClientInterceptor {
+
+  static <M> MetricsClientInterceptor<M> create(GrpcClientMetrics<M> metrics) {
+    return new MetricsClientInterceptor<>(metrics);
+  }
+
+  private final GrpcClientMetrics<M> metrics;
+  private final ConcurrentMap<String, M> methodMetrics = new ConcurrentHashMap<>();
+
+  MetricsClientInterceptor(GrpcClientMetrics<M> metrics) {
+    this.metrics = metrics;
+  }
+
+  private M methodMetric(MethodDescriptor<?, ?> method) {
+    M metric = methodMetrics.get(method.getFullMethodName());
+    if (metric == null) {
+      metric = methodMetrics.computeIfAbsent(method.getFullMethodName(), name -> metrics.methodMetric(method));
+    }
+    return metric;
+  }
+
+  @Override
+  public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+    M metric = methodMetric(method);
+    return new ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT>(next.newCall(method, callOptions)) {
+      @Override
+      public void start(Listener<RespT> responseListener, Metadata headers) {
+        long start = System.nanoTime();
+        metrics.requestBegin(metric);
+        super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<RespT>(responseListener) {
+          @Override
+          public void onClose(Status status, Metadata trailers) {
+            metrics.requestEnd(metric, status.getCode(), System.nanoTime() - start);
+            super.onClose(status, trailers);
+          }
+        }, headers);
+      }
+    };
+  }
+}
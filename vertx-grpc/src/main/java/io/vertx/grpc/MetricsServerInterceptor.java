@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2011-2023 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.grpc;
+
+import io.grpc.Context;
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.vertx.grpc.spi.metrics.GrpcServerMetrics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+/**
+ * Reports the calls of a server to its {@link GrpcServerMetrics}.
+ */
+class MetricsServerInterceptor<M> implements ServerInterceptor {
+
+  /**
+   * The call reporting to the metrics, set while the next interceptors and the service start the call.
+   */
+  private static final Context.Key<MetricsServerInterceptor<?>.MetricsCall<?, ?>> CALL = Context.key("vertx-grpc-metrics-call");
+
+  static <M> MetricsServerInterceptor<M> create(GrpcServerMetrics<M> metrics) {
+    return new MetricsServerInterceptor<>(metrics);
+  }
+
+  /**
+   * Report the compression decision of a response message to the metrics of the call being started.
+   *
+   * @return the reporter or {@code null} when the server has no metrics
+   */
+  static Consumer<GrpcServerMetrics.CompressionDecision> compressionReporter() {
+    MetricsServerInterceptor<?>.MetricsCall<?, ?> call = CALL.get();
+    return call != null ? call::messageCompression : null;
+  }
+
+  private final GrpcServerMetrics<M> metrics;
+  private final ConcurrentMap<String, M> methodMetrics = new ConcurrentHashMap<>();
+
+  MetricsServerInterceptor(GrpcServerMetrics<M> metrics) {
+    this.metrics = metrics;
+  }
+
+  private M methodMetric(MethodDescriptor<?, ?> method) {
+    M metric = methodMetrics.get(method.getFullMethodName());
+    if (metric == null) {
+      metric = methodMetrics.computeIfAbsent(method.getFullMethodName(), name -> metrics.methodMetric(method));
+    }
+    return metric;
+  }
+
+  @Override
+  public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+    M metric = methodMetric(call.getMethodDescriptor());
+    MetricsCall<ReqT, RespT> metricsCall = new MetricsCall<>(call, metric);
+    metrics.requestBegin(metric);
+    ServerCall.Listener<ReqT> listener;
+    Context context = Context.current().withValue(CALL, metricsCall);
+    Context previous = context.attach();
+    try {
+      listener = next.startCall(metricsCall, headers);
+    } catch (RuntimeException e) {
+      metricsCall.end(Status.Code.UNKNOWN);
+      throw e;
+    } finally {
+      context.detach(previous);
+    }
+    return new ForwardingServerCallListener.SimpleForwardingServerCallListener<ReqT>(listener) {
+      @Override
+      public void onCancel() {
+        try {
+          super.onCancel();
+        } finally {
+          metricsCall.end(Status.Code.CANCELLED);
+        }
+      }
+    };
+  }
+
+  private class MetricsCall<ReqT, RespT> extends ForwardingServerCall.SimpleForwardingServerCall<ReqT, RespT> {
+
+    private final M metric;
+    private final long start = System.nanoTime();
+    private volatile boolean ended;
+
+    MetricsCall(ServerCall<ReqT, RespT> delegate, M metric) {
+      super(delegate);
+      this.metric = metric;
+    }
+
+    void end(Status.Code code) {
+      if (!ended) {
+        ended = true;
+        metrics.requestEnd(metric, code, System.nanoTime() - start);
+      }
+    }
+
+    void messageCompression(GrpcServerMetrics.CompressionDecision decision) {
+      metrics.messageCompression(metric, decision);
+    }
+
+    @Override
+    public void close(Status status, Metadata trailers) {
+      end(status.getCode());
+      super.close(status, trailers);
+    }
+  }
+}
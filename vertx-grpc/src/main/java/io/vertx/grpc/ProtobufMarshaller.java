@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2011-2023 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.grpc;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.ExtensionRegistryLite;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.Detachable;
+import io.grpc.HasByteBuffer;
+import io.grpc.KnownLength;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerMethodDefinition;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.ServiceDescriptor;
+import io.grpc.Status;
+import io.grpc.protobuf.lite.ProtoLiteUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A protobuf marshaller parsing the messages from the buffers received by the transport instead of copying them in a
+ * heap array first.
+ *
+ * <p>When the transport exposes its buffers, they are detached from the transport and parsed with a
+ * {@link CodedInputStream} over their NIO buffers. The fields are copied out of these buffers: aliasing them would
+ * keep pooled memory referenced by messages that outlive the buffers once they are released.
+ *
+ * <p>Otherwise the message is read in a heap array that is owned by the message, the {@code bytes} fields alias
+ * this array instead of being copied a second time.
+ *
+ * <p>The messages are serialized by the grpc-java protobuf marshaller: the transport drains the message to its own
+ * buffers, it cannot be handed a buffer serialized beforehand.
+ *
+ * <p>{@link #bind(ServerServiceDefinition)} rebinds the methods of a service to this marshaller, the generated
+ * {@code VertxImplBase} does it with {@code withProtobufMarshaller()}. {@link #clientInterceptor()} does the same for
+ * the calls of a channel.
+ */
+public class ProtobufMarshaller<T extends MessageLite> implements MethodDescriptor.PrototypeMarshaller<T> {
+
+  /**
+   * Create a marshaller for the messages of the type of {@code defaultInstance}.
+   *
+   * @param defaultInstance the default instance of the message type
+   * @return the marshaller
+   */
+  public static <T extends MessageLite> ProtobufMarshaller<T> create(T defaultInstance) {
+    return new ProtobufMarshaller<>(defaultInstance);
+  }
+
+  /**
+   * Rebind the marshallers of a method to {@code ProtobufMarshaller}, the method is returned unchanged when its
+   * marshallers do not marshall protobuf messages.
+   *
+   * @param method the method
+   * @return the rebound method
+   */
+  public static <ReqT, RespT> MethodDescriptor<ReqT, RespT> bind(MethodDescriptor<ReqT, RespT> method) {
+    MethodDescriptor.Marshaller<ReqT> requestMarshaller = bind(method.getRequestMarshaller());
+    MethodDescriptor.Marshaller<RespT> responseMarshaller = bind(method.getResponseMarshaller());
+    if (requestMarshaller == method.getRequestMarshaller() && responseMarshaller == method.getResponseMarshaller()) {
+      return method;
+    }
+    return method.toBuilder(requestMarshaller, responseMarshaller).build();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> MethodDescriptor.Marshaller<T> bind(MethodDescriptor.Marshaller<T> marshaller) {
+    if (marshaller instanceof ProtobufMarshaller || !(marshaller instanceof MethodDescriptor.PrototypeMarshaller)) {
+      return marshaller;
+    }
+    Object prototype = ((MethodDescriptor.PrototypeMarshaller<T>) marshaller).getMessagePrototype();
+    if (!(prototype instanceof MessageLite)) {
+      return marshaller;
+    }
+    return (MethodDescriptor.Marshaller<T>) create((MessageLite) prototype);
+  }
+
+  /**
+   * Rebind the methods of a service to {@code ProtobufMarshaller}.
+   *
+   * @param service the service
+   * @return the rebound service
+   */
+  public static ServerServiceDefinition bind(ServerServiceDefinition service) {
+    ServiceDescriptor descriptor = service.getServiceDescriptor();
+    List<ServerMethodDefinition<?, ?>> methods = new ArrayList<>();
+    ServiceDescriptor.Builder descriptorBuilder = ServiceDescriptor.newBuilder(descriptor.getName())
+      .setSchemaDescriptor(descriptor.getSchemaDescriptor());
+    for (ServerMethodDefinition<?, ?> method : service.getMethods()) {
+      ServerMethodDefinition<?, ?> bound = bind(method);
+      methods.add(bound);
+      descriptorBuilder.addMethod(bound.getMethodDescriptor());
+    }
+    ServerServiceDefinition.Builder builder = ServerServiceDefinition.builder(descriptorBuilder.build());
+    for (ServerMethodDefinition<?, ?> method : methods) {
+      builder.addMethod(method);
+    }
+    return builder.build();
+  }
+
+  private static <ReqT, RespT> ServerMethodDefinition<ReqT, RespT> bind(ServerMethodDefinition<ReqT, RespT> method) {
+    MethodDescriptor<ReqT, RespT> descriptor = bind(method.getMethodDescriptor());
+    return descriptor == method.getMethodDescriptor() ? method : ServerMethodDefinition.create(descriptor, method.getServerCallHandler());
+  }
+
+  /**
+   * @return a client interceptor rebinding the methods of the calls to {@code ProtobufMarshaller}
+   */
+  public static ClientInterceptor clientInterceptor() {
+    ConcurrentMap<String, MethodDescriptor<?, ?>> methods = new ConcurrentHashMap<>();
+    return new ClientInterceptor() {
+      @SuppressWarnings("unchecked")
+      @Override
+      public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+        MethodDescriptor<?, ?> bound = methods.get(method.getFullMethodName());
+        if (bound == null) {
+          bound = bind(method);
+          methods.put(method.getFullMethodName(), bound);
+        }
+        return next.newCall((MethodDescriptor<ReqT, RespT>) bound, callOptions);
+      }
+    };
+  }
+
+  private final T defaultInstance;
+  private final Parser<T> parser;
+  private final MethodDescriptor.Marshaller<T> serializer;
+
+  @SuppressWarnings("unchecked")
+  private ProtobufMarshaller(T defaultInstance) {
+    this.defaultInstance = defaultInstance;
+    this.parser = (Parser<T>) defaultInstance.getParserForType();
+    this.serializer = ProtoLiteUtils.marshaller(defaultInstance);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public Class<T> getMessageClass() {
+    return (Class<T>) defaultInstance.getClass();
+  }
+
+  @Override
+  public T getMessagePrototype() {
+    return defaultInstance;
+  }
+
+  @Override
+  public InputStream stream(T value) {
+    return serializer.stream(value);
+  }
+
+  @Override
+  public T parse(InputStream stream) {
+    try {
+      if (stream instanceof Detachable && stream instanceof HasByteBuffer && ((HasByteBuffer) stream).byteBufferSupported()) {
+        return parseDetached(((Detachable) stream).detach());
+      } else if (stream instanceof KnownLength) {
+        return parseKnownLength(stream);
+      } else {
+        return parse(CodedInputStream.newInstance(stream));
+      }
+    } catch (InvalidProtocolBufferException e) {
+      throw Status.INTERNAL.withDescription("Invalid protobuf byte sequence").withCause(e).asRuntimeException();
+    } catch (IOException e) {
+      throw Status.INTERNAL.withDescription("Cannot read the message").withCause(e).asRuntimeException();
+    }
+  }
+
+  private T parseDetached(InputStream detached) throws IOException {
+    try {
+      if (!detached.markSupported()) {
+        return parseKnownLength(detached);
+      }
+      // Marked buffers are not released when skipped, they remain valid until the stream is closed
+      detached.mark(Integer.MAX_VALUE);
+      List<ByteBuffer> buffers = new ArrayList<>();
+      while (detached.available() > 0) {
+        ByteBuffer buffer = ((HasByteBuffer) detached).getByteBuffer();
+        if (buffer == null) {
+          detached.reset();
+          return parseKnownLength(detached);
+        }
+        buffers.add(buffer);
+        detached.skip(buffer.remaining());
+      }
+      CodedInputStream input;
+      if (buffers.size() == 1) {
+        input = CodedInputStream.newInstance(buffers.get(0));
+      } else {
+        input = CodedInputStream.newInstance(buffers);
+      }
+      return parse(input);
+    } finally {
+      detached.close();
+    }
+  }
+
+  private T parseKnownLength(InputStream stream) throws IOException {
+    int size = stream.available();
+    byte[] bytes = new byte[size];
+    int offset = 0;
+    while (offset < size) {
+      int amount = stream.read(bytes, offset, size - offset);
+      if (amount == -1) {
+        break;
+      }
+      offset += amount;
+    }
+    if (offset != size) {
+      throw new IOException("Wrong size: expected " + size + " bytes, read " + offset);
+    }
+    CodedInputStream input = CodedInputStream.newInstance(bytes);
+    // The array is owned by the message, the bytes fields can share it instead of being copied
+    input.enableAliasing(true);
+    return parse(input);
+  }
+
+  private T parse(CodedInputStream input) throws InvalidProtocolBufferException {
+    // The max inbound message size is enforced by the transport
+    input.setSizeLimit(Integer.MAX_VALUE);
+    T message = parser.parseFrom(input, ExtensionRegistryLite.getEmptyRegistry());
+    input.checkLastTagWas(0);
+    return message;
+  }
+}
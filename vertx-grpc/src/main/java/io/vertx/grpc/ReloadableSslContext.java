@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2011-2023 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.grpc;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.handler.ssl.ApplicationProtocolNegotiator;
+import io.netty.handler.ssl.SslContext;
+import io.netty.util.IllegalReferenceCountException;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.ReferenceCounted;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLSessionContext;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * An {@code SslContext} delegating to a context that can be swapped at runtime, the transports create a new engine
+ * for each connection, so new handshakes use the current context while established connections are kept.
+ */
+class ReloadableSslContext extends SslContext {
+
+  private volatile SslContext delegate;
+
+  ReloadableSslContext(SslContext delegate) {
+    this.delegate = delegate;
+  }
+
+  /**
+   * Swap the current context, the previous context is released.
+   *
+   * @param context the new context
+   */
+  void update(SslContext context) {
+    if (context.isClient() != delegate.isClient()) {
+      throw new IllegalArgumentException("Cannot update a " + (delegate.isClient() ? "client" : "server") + " SSL context");
+    }
+    SslContext previous = delegate;
+    delegate = context;
+    // The engines created by an OpenSSL context hold their own reference to it, the engines being created retain
+    // the context until they are created
+    ReferenceCountUtil.release(previous);
+  }
+
+  @Override
+  public boolean isClient() {
+    return delegate.isClient();
+  }
+
+  @Override
+  public List<String> cipherSuites() {
+    return delegate.cipherSuites();
+  }
+
+  @Override
+  public long sessionCacheSize() {
+    return delegate.sessionCacheSize();
+  }
+
+  @Override
+  public long sessionTimeout() {
+    return delegate.sessionTimeout();
+  }
+
+  @SuppressWarnings("deprecation")
+  @Override
+  public ApplicationProtocolNegotiator applicationProtocolNegotiator() {
+    return delegate.applicationProtocolNegotiator();
+  }
+
+  @Override
+  public SSLEngine newEngine(ByteBufAllocator alloc) {
+    return newEngine(ctx -> ctx.newEngine(alloc));
+  }
+
+  @Override
+  public SSLEngine newEngine(ByteBufAllocator alloc, String peerHost, int peerPort) {
+    return newEngine(ctx -> ctx.newEngine(alloc, peerHost, peerPort));
+  }
+
+  /**
+   * Create an engine with the current context, a reference counted context is retained while the engine is created
+   * so a concurrent {@link #update(SslContext)} cannot free it.
+   */
+  private SSLEngine newEngine(Function<SslContext, SSLEngine> factory) {
+    while (true) {
+      SslContext current = delegate;
+      if (!(current instanceof ReferenceCounted)) {
+        return factory.apply(current);
+      }
+      try {
+        ((ReferenceCounted) current).retain();
+      } catch (IllegalReferenceCountException e) {
+        // Released by an update, the new context has been set
+        continue;
+      }
+      try {
+        return factory.apply(current);
+      } finally {
+        ReferenceCountUtil.release(current);
+      }
+    }
+  }
+
+  @Override
+  public SSLSessionContext sessionContext() {
+    return delegate.sessionContext();
+  }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2011-2023 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.grpc;
+
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A server interceptor coalescing the identical concurrent calls of unary methods: the service is invoked once and
+ * the calls received while it is running get the same response.
+ *
+ * <p>A method is coalesced when it is marked safe by its descriptor, i.e it is declared with the
+ * {@code NO_SIDE_EFFECTS} idempotency level, or when it has been added with {@link #addMethod(MethodDescriptor)}.
+ * Calls are identical when they have the same serialized request and the same values for the headers added with
+ * {@link #addHeader(String)}.
+ *
+ * <p>The in-flight calls are tracked in a single concurrent map, its internal locking already confines the contention
+ * to the calls of a same bin, whereas a map per event loop would not coalesce the calls received by different loops.
+ * The response is sent to each waiting call on its own context. When the call invoking the service is cancelled, the
+ * service is invoked again for the oldest waiting call and the other calls keep waiting.
+ */
+public class RequestCoalescer implements ServerInterceptor {
+
+  /**
+   * @return a new coalescer
+   */
+  public static RequestCoalescer create() {
+    return new RequestCoalescer();
+  }
+
+  private final Set<String> methods = new HashSet<>();
+  private final List<Metadata.Key<?>> headers = new ArrayList<>();
+  private final ConcurrentMap<RequestKey, Flight> flights = new ConcurrentHashMap<>();
+  private final LongAdder coalesced = new LongAdder();
+
+  private RequestCoalescer() {
+  }
+
+  /**
+   * Coalesce the calls of a unary method.
+   *
+   * @param method the method
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RequestCoalescer addMethod(MethodDescriptor<?, ?> method) {
+    if (method.getType() != MethodDescriptor.MethodType.UNARY) {
+      throw new IllegalArgumentException("Only unary methods can be coalesced");
+    }
+    methods.add(method.getFullMethodName());
+    return this;
+  }
+
+  /**
+   * Add a request header that must be equal for calls to be coalesced. The value of a binary header, i.e with a name
+   * ending with {@code -bin}, is compared as bytes.
+   *
+   * @param name the header name
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RequestCoalescer addHeader(String name) {
+    headers.add(UnaryCallListener.headerKey(name));
+    return this;
+  }
+
+  /**
+   * @return the number of calls that got the response of an identical call instead of invoking the service
+   */
+  public long coalesced() {
+    return coalesced.sum();
+  }
+
+  private boolean isCoalesced(MethodDescriptor<?, ?> method) {
+    return method.getType() == MethodDescriptor.MethodType.UNARY && (method.isSafe() || methods.contains(method.getFullMethodName()));
+  }
+
+  @Override
+  public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+    if (!isCoalesced(call.getMethodDescriptor())) {
+      return next.startCall(call, headers);
+    }
+    // The service is started when the request is received, unless an identical call is in flight
+    call.request(1);
+    return new CoalescingListener<>(call, headers, next);
+  }
+
+  /**
+   * A call invoking the service, the leader, and the identical calls waiting for its response.
+   */
+  private static class Flight {
+
+    private CoalescingListener<?, ?> leader;
+    private List<CoalescingListener<?, ?>> waiters = new ArrayList<>();
+
+    Flight(CoalescingListener<?, ?> leader) {
+      this.leader = leader;
+    }
+
+    synchronized boolean join(CoalescingListener<?, ?> waiter) {
+      if (waiters == null) {
+        return false;
+      }
+      waiters.add(waiter);
+      return true;
+    }
+
+    synchronized boolean leave(CoalescingListener<?, ?> waiter) {
+      return waiters != null && waiters.remove(waiter);
+    }
+
+    /**
+     * Replace a cancelled leader by the first waiter.
+     *
+     * @return the new leader or {@code null} when the flight is over
+     */
+    synchronized CoalescingListener<?, ?> promote(CoalescingListener<?, ?> cancelled) {
+      if (leader != cancelled || waiters == null) {
+        return null;
+      }
+      if (waiters.isEmpty()) {
+        waiters = null;
+        return null;
+      }
+      leader = waiters.remove(0);
+      return leader;
+    }
+
+    /**
+     * @return the waiters to complete or {@code null} when the caller is no longer the leader
+     */
+    synchronized List<CoalescingListener<?, ?>> complete(CoalescingListener<?, ?> caller) {
+      if (leader != caller || waiters == null) {
+        return null;
+      }
+      List<CoalescingListener<?, ?>> list = waiters;
+      waiters = null;
+      return list;
+    }
+  }
+
+  private class CoalescingListener<ReqT, RespT> extends UnaryCallListener<ReqT, RespT> {
+
+    // The listener events are delivered on this context
+    private final Context context = Vertx.currentContext();
+    private RequestKey key;
+    private Flight flight;
+    private boolean cancelled;
+
+    CoalescingListener(ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+      super(call, headers, next, RequestCoalescer.this.headers);
+    }
+
+    @Override
+    protected void onRequest(RequestKey key) {
+      this.key = key;
+      Flight created = new Flight(this);
+      while (true) {
+        Flight current = flights.putIfAbsent(key, created);
+        if (current == null) {
+          flight = created;
+          lead();
+          return;
+        }
+        if (current.join(this)) {
+          flight = current;
+          coalesced.increment();
+          return;
+        }
+        // The flight is completing, replace it
+        flights.remove(key, current);
+      }
+    }
+
+    private void lead() {
+      start(record(this::complete));
+    }
+
+    private void complete(Response response) {
+      List<CoalescingListener<?, ?>> waiters = flight.complete(this);
+      if (waiters == null) {
+        return;
+      }
+      flights.remove(key, flight);
+      for (CoalescingListener<?, ?> waiter : waiters) {
+        waiter.execute(() -> waiter.send(response));
+      }
+    }
+
+    private void execute(Runnable task) {
+      if (context != null) {
+        context.runOnContext(v -> task.run());
+      } else {
+        task.run();
+      }
+    }
+
+    private void send(Response response) {
+      try {
+        response.send(call);
+      } catch (RuntimeException ignore) {
+        // The waiting call is already closed
+      }
+    }
+
+    private void promoted() {
+      if (!cancelled) {
+        lead();
+      }
+    }
+
+    @Override
+    public void onCancel() {
+      cancelled = true;
+      super.onCancel();
+      if (flight == null || flight.leave(this)) {
+        return;
+      }
+      // The service of a cancelled leader is started again for the first waiter
+      CoalescingListener<?, ?> next = flight.promote(this);
+      if (next != null) {
+        next.execute(next::promoted);
+      } else {
+        flights.remove(key, flight);
+      }
+    }
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2011-2023 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.grpc;
+
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Identifies the identical requests of a unary method: same method, same serialized request and same values for a
+ * selection of headers.
+ */
+final class RequestKey {
+
+  static <ReqT> RequestKey of(MethodDescriptor<ReqT, ?> method, ReqT request, Metadata headers, List<Metadata.Key<?>> keys) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (InputStream in = method.streamRequest(request)) {
+      byte[] buffer = new byte[512];
+      int amount;
+      while ((amount = in.read(buffer)) != -1) {
+        out.write(buffer, 0, amount);
+      }
+    }
+    Object[] values = new Object[keys.size()];
+    for (int i = 0;i < values.length;i++) {
+      values[i] = headers.get(keys.get(i));
+    }
+    return new RequestKey(method.getFullMethodName(), out.toByteArray(), values);
+  }
+
+  private final String method;
+  private final byte[] request;
+  private final Object[] headers;
+  private final int hashCode;
+
+  private RequestKey(String method, byte[] request, Object[] headers) {
+    this.method = method;
+    this.request = request;
+    this.headers = headers;
+    this.hashCode = 31 * (31 * method.hashCode() + Arrays.hashCode(request)) + Arrays.deepHashCode(headers);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (!(obj instanceof RequestKey)) {
+      return false;
+    }
+    RequestKey that = (RequestKey) obj;
+    return hashCode == that.hashCode && method.equals(that.method) && Arrays.equals(request, that.request) && Arrays.deepEquals(headers, that.headers);
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2011-2023 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.grpc;
+
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A server interceptor caching the responses of cacheable unary methods, so identical requests are answered without
+ * invoking the service.
+ *
+ * <p>A method is cacheable when it is marked safe by its descriptor, i.e it is declared with the
+ * {@code NO_SIDE_EFFECTS} idempotency level, or when it has been added with {@link #addMethod(MethodDescriptor)}.
+ *
+ * <p>The responses are keyed by the serialized request and the values of the headers added with
+ * {@link #addHeader(String)}, only the responses of successful calls are cached. A cached response is replayed with the
+ * headers, the trailers and the compression sent by the service. The entries expire after a time to live and the
+ * least recently used entries are evicted when the cache is full.
+ */
+public class ResponseCache implements ServerInterceptor {
+
+  /**
+   * @return a new cache with the default settings
+   */
+  public static ResponseCache create() {
+    return new ResponseCache();
+  }
+
+  public static final int DEFAULT_MAX_SIZE = 1000;
+  public static final long DEFAULT_TTL_MILLIS = 60_000L;
+
+  private final Set<String> methods = new HashSet<>();
+  private final List<Metadata.Key<?>> headers = new ArrayList<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private int maxSize = DEFAULT_MAX_SIZE;
+  private long ttlNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_TTL_MILLIS);
+  private final LinkedHashMap<RequestKey, Entry> entries = new LinkedHashMap<RequestKey, Entry>(16, 0.75F, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<RequestKey, Entry> eldest) {
+      return size() > maxSize;
+    }
+  };
+
+  private ResponseCache() {
+  }
+
+  /**
+   * Set the maximum number of cached responses.
+   *
+   * @param maxSize the max size
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ResponseCache setMaxSize(int maxSize) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("Max size must be > 0");
+    }
+    this.maxSize = maxSize;
+    return this;
+  }
+
+  /**
+   * Set the time a response stays in the cache.
+   *
+   * @param ttl the time to live
+   * @param unit the time unit
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ResponseCache setTtl(long ttl, TimeUnit unit) {
+    if (ttl <= 0L) {
+      throw new IllegalArgumentException("TTL must be > 0");
+    }
+    this.ttlNanos = unit.toNanos(ttl);
+    return this;
+  }
+
+  /**
+   * Make a unary method cacheable.
+   *
+   * @param method the method
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ResponseCache addMethod(MethodDescriptor<?, ?> method) {
+    if (method.getType() != MethodDescriptor.MethodType.UNARY) {
+      throw new IllegalArgumentException("Only unary methods can be cached");
+    }
+    methods.add(method.getFullMethodName());
+    return this;
+  }
+
+  /**
+   * Add a request header to the cache key, e.g an header selecting the language of the response. The value of a
+   * binary header, i.e with a name ending with {@code -bin}, is compared as bytes.
+   *
+   * @param name the header name
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ResponseCache addHeader(String name) {
+    headers.add(UnaryCallListener.headerKey(name));
+    return this;
+  }
+
+  /**
+   * @return the number of calls answered from the cache
+   */
+  public long hits() {
+    return hits.sum();
+  }
+
+  /**
+   * @return the number of cacheable calls that invoked the service
+   */
+  public long misses() {
+    return misses.sum();
+  }
+
+  /**
+   * @return the number of cached responses, including the expired responses not yet evicted
+   */
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  /**
+   * Remove all the cached responses.
+   */
+  public void clear() {
+    synchronized (entries) {
+      entries.clear();
+    }
+  }
+
+  private boolean isCacheable(MethodDescriptor<?, ?> method) {
+    return method.getType() == MethodDescriptor.MethodType.UNARY && (method.isSafe() || methods.contains(method.getFullMethodName()));
+  }
+
+  private UnaryCallListener.Response get(RequestKey key) {
+    synchronized (entries) {
+      Entry entry = entries.get(key);
+      if (entry == null) {
+        return null;
+      }
+      if (System.nanoTime() - entry.expiresAt >= 0L) {
+        entries.remove(key);
+        return null;
+      }
+      return entry.response;
+    }
+  }
+
+  private void put(RequestKey key, UnaryCallListener.Response response) {
+    Entry entry = new Entry(response, System.nanoTime() + ttlNanos);
+    synchronized (entries) {
+      entries.put(key, entry);
+    }
+  }
+
+  @Override
+  public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+    if (!isCacheable(call.getMethodDescriptor())) {
+      return next.startCall(call, headers);
+    }
+    // The service is started when the request is received, on a miss
+    call.request(1);
+    return new CacheListener<>(call, headers, next);
+  }
+
+  private static class Entry {
+
+    final UnaryCallListener.Response response;
+    final long expiresAt;
+
+    Entry(UnaryCallListener.Response response, long expiresAt) {
+      this.response = response;
+      this.expiresAt = expiresAt;
+    }
+  }
+
+  private class CacheListener<ReqT, RespT> extends UnaryCallListener<ReqT, RespT> {
+
+    CacheListener(ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+      super(call, headers, next, ResponseCache.this.headers);
+    }
+
+    @Override
+    protected void onRequest(RequestKey key) {
+      Response cached = get(key);
+      if (cached != null) {
+        hits.increment();
+        cached.send(call);
+        return;
+      }
+      misses.increment();
+      start(record(response -> {
+        if (response.succeeded()) {
+          put(key, response);
+        }
+      }));
+    }
+  }
+}
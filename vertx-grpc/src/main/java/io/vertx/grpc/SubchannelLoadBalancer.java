@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2011-2023 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.grpc;
+
+import io.grpc.Attributes;
+import io.grpc.ConnectivityState;
+import io.grpc.ConnectivityStateInfo;
+import io.grpc.EquivalentAddressGroup;
+import io.grpc.LoadBalancer;
+import io.grpc.Status;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Base load balancer maintaining a subchannel per resolved address group, the subclasses pick among the ready
+ * subchannels.
+ *
+ * <p>The balancer methods and the subchannel state listeners run in the synchronization context of the channel, the
+ * pickers they create are called concurrently by the calls.
+ */
+abstract class SubchannelLoadBalancer extends LoadBalancer {
+
+  private static final Attributes.Key<State> STATE = Attributes.Key.create("vertx-subchannel-state");
+
+  private final Helper helper;
+  private final Map<EquivalentAddressGroup, Subchannel> subchannels = new HashMap<>();
+  private ConnectivityState currentState;
+
+  SubchannelLoadBalancer(Helper helper) {
+    this.helper = helper;
+  }
+
+  /**
+   * Create the picker for the given ready subchannels.
+   *
+   * @param ready the ready subchannels, never empty
+   * @param all all the subchannels, including the ready ones
+   * @return the picker
+   */
+  abstract SubchannelPicker newPicker(List<Subchannel> ready, Collection<Subchannel> all);
+
+  /**
+   * Add the attributes of a new subchannel, the subclasses use them to attach their per subchannel state.
+   *
+   * @param attributes the attributes of the subchannel
+   */
+  void initSubchannel(Attributes.Builder attributes) {
+  }
+
+  @Override
+  public void handleResolvedAddresses(ResolvedAddresses resolvedAddresses) {
+    Map<EquivalentAddressGroup, EquivalentAddressGroup> latest = new HashMap<>();
+    for (EquivalentAddressGroup group : resolvedAddresses.getAddresses()) {
+      // The attributes are not part of the subchannel identity
+      latest.put(new EquivalentAddressGroup(group.getAddresses()), group);
+    }
+    for (Iterator<Map.Entry<EquivalentAddressGroup, Subchannel>> it = subchannels.entrySet().iterator(); it.hasNext();) {
+      Map.Entry<EquivalentAddressGroup, Subchannel> entry = it.next();
+      if (!latest.containsKey(entry.getKey())) {
+        it.remove();
+        Subchannel subchannel = entry.getValue();
+        subchannel.getAttributes().get(STATE).info = ConnectivityStateInfo.forNonError(ConnectivityState.SHUTDOWN);
+        subchannel.shutdown();
+      }
+    }
+    for (Map.Entry<EquivalentAddressGroup, EquivalentAddressGroup> entry : latest.entrySet()) {
+      Subchannel existing = subchannels.get(entry.getKey());
+      if (existing != null) {
+        existing.updateAddresses(Collections.singletonList(entry.getValue()));
+        continue;
+      }
+      Attributes.Builder attributes = Attributes.newBuilder().set(STATE, new State());
+      initSubchannel(attributes);
+      Subchannel subchannel = helper.createSubchannel(CreateSubchannelArgs.newBuilder()
+        .setAddresses(entry.getValue())
+        .setAttributes(attributes.build())
+        .build());
+      subchannel.start(info -> handleSubchannelState(subchannel, info));
+      subchannels.put(entry.getKey(), subchannel);
+      subchannel.requestConnection();
+    }
+    updateBalancingState();
+  }
+
+  private void handleSubchannelState(Subchannel subchannel, ConnectivityStateInfo info) {
+    if (subchannels.get(new EquivalentAddressGroup(subchannel.getAddresses().getAddresses())) != subchannel) {
+      return;
+    }
+    if (info.getState() == ConnectivityState.TRANSIENT_FAILURE || info.getState() == ConnectivityState.IDLE) {
+      helper.refreshNameResolution();
+    }
+    if (info.getState() == ConnectivityState.IDLE) {
+      subchannel.requestConnection();
+    }
+    State state = subchannel.getAttributes().get(STATE);
+    if (state.info.getState() == ConnectivityState.TRANSIENT_FAILURE && (info.getState() == ConnectivityState.CONNECTING || info.getState() == ConnectivityState.IDLE)) {
+      // A failed subchannel stays failed until it is ready again
+      return;
+    }
+    state.info = info;
+    updateBalancingState();
+  }
+
+  private void updateBalancingState() {
+    List<Subchannel> ready = new ArrayList<>(subchannels.size());
+    boolean connecting = false;
+    Status failure = null;
+    for (Subchannel subchannel : subchannels.values()) {
+      ConnectivityStateInfo info = subchannel.getAttributes().get(STATE).info;
+      switch (info.getState()) {
+        case READY:
+          ready.add(subchannel);
+          break;
+        case CONNECTING:
+        case IDLE:
+          connecting = true;
+          break;
+        case TRANSIENT_FAILURE:
+          if (failure == null) {
+            failure = info.getStatus();
+          }
+          break;
+      }
+    }
+    if (!ready.isEmpty()) {
+      updateBalancingState(ConnectivityState.READY, newPicker(ready, subchannels.values()));
+    } else if (connecting || failure == null) {
+      updateBalancingState(ConnectivityState.CONNECTING, new FixedPicker(PickResult.withNoResult()));
+    } else {
+      updateBalancingState(ConnectivityState.TRANSIENT_FAILURE, new FixedPicker(PickResult.withError(failure)));
+    }
+  }
+
+  private void updateBalancingState(ConnectivityState state, SubchannelPicker picker) {
+    currentState = state;
+    helper.updateBalancingState(state, picker);
+  }
+
+  @Override
+  public void handleNameResolutionError(Status error) {
+    if (currentState != ConnectivityState.READY) {
+      updateBalancingState(ConnectivityState.TRANSIENT_FAILURE, new FixedPicker(PickResult.withError(error)));
+    }
+  }
+
+  @Override
+  public void shutdown() {
+    for (Subchannel subchannel : subchannels.values()) {
+      subchannel.shutdown();
+    }
+    subchannels.clear();
+  }
+
+  /**
+   * The last state of a subchannel, only accessed in the synchronization context.
+   */
+  private static class State {
+    private ConnectivityStateInfo info = ConnectivityStateInfo.forNonError(ConnectivityState.IDLE);
+  }
+
+  private static class FixedPicker extends SubchannelPicker {
+
+    private final PickResult result;
+
+    FixedPicker(PickResult result) {
+      this.result = result;
+    }
+
+    @Override
+    public PickResult pickSubchannel(PickSubchannelArgs args) {
+      return result;
+    }
+  }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2011-2023 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.grpc;
+
+import io.grpc.ForwardingServerCall;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A listener buffering the request of a unary call until it is half-closed, so the call can be answered without
+ * starting the service, or started later with the buffered request.
+ */
+abstract class UnaryCallListener<ReqT, RespT> extends ServerCall.Listener<ReqT> {
+
+  /**
+   * Create the key of a header selecting the response, the binary headers are supported.
+   *
+   * @param name the header name
+   * @return the key
+   */
+  static Metadata.Key<?> headerKey(String name) {
+    if (name.endsWith(Metadata.BINARY_HEADER_SUFFIX)) {
+      return Metadata.Key.of(name, Metadata.BINARY_BYTE_MARSHALLER);
+    } else {
+      return Metadata.Key.of(name, Metadata.ASCII_STRING_MARSHALLER);
+    }
+  }
+
+  protected final ServerCall<ReqT, RespT> call;
+  protected final Metadata headers;
+  private final ServerCallHandler<ReqT, RespT> next;
+  private final List<Metadata.Key<?>> keyHeaders;
+  private ReqT request;
+  private ServerCall.Listener<ReqT> delegate;
+
+  UnaryCallListener(ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next, List<Metadata.Key<?>> keyHeaders) {
+    this.call = call;
+    this.headers = headers;
+    this.next = next;
+    this.keyHeaders = keyHeaders;
+  }
+
+  /**
+   * Called when the request is received.
+   *
+   * @param key the key of the request
+   */
+  protected abstract void onRequest(RequestKey key);
+
+  /**
+   * Start the service with the buffered request, the events received so far are replayed.
+   *
+   * @param serviceCall the call given to the service
+   */
+  protected void start(ServerCall<ReqT, RespT> serviceCall) {
+    try {
+      delegate = next.startCall(serviceCall, headers);
+    } catch (StatusRuntimeException e) {
+      Metadata trailers = e.getTrailers();
+      serviceCall.close(e.getStatus(), trailers != null ? trailers : new Metadata());
+      return;
+    }
+    delegate.onReady();
+    delegate.onMessage(request);
+    delegate.onHalfClose();
+  }
+
+  /**
+   * Wrap the call to record the response of the service.
+   *
+   * @param closeHandler called with the response when the service closes the call
+   * @return the call to give to the service
+   */
+  protected ServerCall<ReqT, RespT> record(Consumer<Response> closeHandler) {
+    return new ForwardingServerCall.SimpleForwardingServerCall<ReqT, RespT>(call) {
+      private Metadata headers;
+      private String compression;
+      private RespT message;
+      @Override
+      public void setCompression(String compressor) {
+        compression = compressor;
+        super.setCompression(compressor);
+      }
+      @Override
+      public void sendHeaders(Metadata headers) {
+        // The call modifies the headers it sends
+        this.headers = copy(headers);
+        super.sendHeaders(headers);
+      }
+      @Override
+      public void sendMessage(RespT message) {
+        this.message = message;
+        super.sendMessage(message);
+      }
+      @Override
+      public void close(Status status, Metadata trailers) {
+        Response response = new Response(status, headers, message, copy(trailers), compression);
+        super.close(status, trailers);
+        closeHandler.accept(response);
+      }
+    };
+  }
+
+  @Override
+  public void onMessage(ReqT message) {
+    if (delegate != null) {
+      delegate.onMessage(message);
+    } else if (request == null) {
+      request = message;
+    } else {
+      call.close(Status.INTERNAL.withDescription("Too many requests"), new Metadata());
+    }
+  }
+
+  @Override
+  public void onHalfClose() {
+    if (delegate != null) {
+      delegate.onHalfClose();
+      return;
+    }
+    if (request == null) {
+      call.close(Status.INTERNAL.withDescription("Half-closed without a request"), new Metadata());
+      return;
+    }
+    RequestKey key;
+    try {
+      key = RequestKey.of(call.getMethodDescriptor(), request, headers, keyHeaders);
+    } catch (IOException e) {
+      call.close(Status.INTERNAL.withDescription("Cannot serialize the request").withCause(e), new Metadata());
+      return;
+    }
+    onRequest(key);
+  }
+
+  @Override
+  public void onCancel() {
+    if (delegate != null) {
+      delegate.onCancel();
+    }
+  }
+
+  @Override
+  public void onComplete() {
+    if (delegate != null) {
+      delegate.onComplete();
+    }
+  }
+
+  @Override
+  public void onReady() {
+    if (delegate != null) {
+      delegate.onReady();
+    }
+  }
+
+  private static Metadata copy(Metadata metadata) {
+    Metadata copy = new Metadata();
+    if (metadata != null) {
+      copy.merge(metadata);
+    }
+    return copy;
+  }
+
+  /**
+   * The response of a unary call, it can be sent to other calls.
+   */
+  static final class Response {
+
+    final Status status;
+    final Metadata headers;
+    final Object message;
+    final Metadata trailers;
+    final String compression;
+
+    Response(Status status, Metadata headers, Object message, Metadata trailers, String compression) {
+      this.status = status;
+      this.headers = headers;
+      this.message = message;
+      this.trailers = trailers;
+      this.compression = compression;
+    }
+
+    /**
+     * @return whether the call succeeded with a message
+     */
+    boolean succeeded() {
+      return status.isOk() && message != null;
+    }
+
+    /**
+     * Send the response to a call.
+     *
+     * @param call the call
+     */
+    @SuppressWarnings("unchecked")
+    <RespT> void send(ServerCall<?, RespT> call) {
+      if (succeeded()) {
+        if (compression != null) {
+          call.setCompression(compression);
+        }
+        call.sendHeaders(copy(headers));
+        call.sendMessage((RespT) message);
+      }
+      call.close(status, copy(trailers));
+    }
+  }
+}
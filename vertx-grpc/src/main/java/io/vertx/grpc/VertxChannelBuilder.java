@@ -18,8 +18,12 @@ package io.vertx.grpc;
 import io.grpc.*;
 import io.grpc.internal.GrpcUtil;
 import io.grpc.netty.NettyChannelBuilder;
+import io.netty.channel.EventLoop;
+import io.netty.channel.unix.DomainSocketAddress;
 import io.netty.handler.ssl.SslContext;
+import io.netty.util.concurrent.EventExecutor;
 import io.vertx.core.Context;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.VertxException;
@@ -28,15 +32,22 @@ import io.vertx.core.http.HttpVersion;
 import io.vertx.core.impl.ContextInternal;
 import io.vertx.core.impl.VertxInternal;
 import io.vertx.core.net.ClientOptionsBase;
+import io.vertx.core.net.SSLOptions;
 import io.vertx.core.net.impl.SSLHelper;
-import io.vertx.core.net.impl.SslContextProvider;
+import io.vertx.core.spi.metrics.VertxMetrics;
 import io.vertx.core.spi.transport.Transport;
+import io.vertx.grpc.spi.metrics.GrpcClientMetrics;
+import io.vertx.grpc.spi.metrics.GrpcMetricsFactory;
 
 import javax.annotation.Nullable;
+import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
@@ -59,24 +70,59 @@ public class VertxChannelBuilder extends ManagedChannelBuilder<VertxChannelBuild
     return new VertxChannelBuilder(vertx, address);
   }
 
+  /**
+   * Create a builder for a channel connecting to a Vert.x {@code address}, which can be a domain socket address when
+   * the native transport is used.
+   *
+   * @param vertx the vertx instance
+   * @param address the address
+   * @return the builder
+   */
+  public static VertxChannelBuilder forAddress(Vertx vertx, io.vertx.core.net.SocketAddress address) {
+    return new VertxChannelBuilder(vertx, ((VertxInternal) vertx).transport().convert(address));
+  }
+
   private final Vertx vertx;
+  private final String target;
   private final NettyChannelBuilder builder;
   private final ContextInternal context;
   private final HttpClientOptions options = new HttpClientOptions();
+  // The SSL contexts of the built channels, weakly referenced so the channels can be collected
+  private final Set<ReloadableSslContext> sslContexts = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+  private boolean metricsInstalled;
+  private boolean domainSocket;
+  private int poolSize = 1;
+  private boolean callerContextInstalled;
 
   private VertxChannelBuilder(Vertx vertx, String host, int port) {
     this(vertx, GrpcUtil.authorityFromHostAndPort(host, port));
   }
 
+  @SuppressWarnings("deprecation")
   private VertxChannelBuilder(Vertx vertx, String target) {
     this.vertx = vertx;
-    this.builder = NettyChannelBuilder.forTarget(target);
+    this.target = target;
+    this.builder = NettyChannelBuilder.forTarget(target)
+      .compressorRegistry(Codecs.compressorRegistry())
+      .decompressorRegistry(Codecs.decompressorRegistry())
+      .nameResolverFactory(new VertxNameResolverProvider(vertx).withDefaultRegistry());
     this.context = (ContextInternal) vertx.getOrCreateContext();
   }
 
   private VertxChannelBuilder(Vertx vertx, SocketAddress address) {
+    if (!(address instanceof InetSocketAddress) && !(address instanceof DomainSocketAddress)) {
+      throw new IllegalArgumentException("Unsupported address " + address);
+    }
     this.vertx = vertx;
-    this.builder = NettyChannelBuilder.forAddress(address);
+    this.target = address.toString();
+    this.builder = NettyChannelBuilder.forAddress(address)
+      .compressorRegistry(Codecs.compressorRegistry())
+      .decompressorRegistry(Codecs.decompressorRegistry());
+    if (address instanceof DomainSocketAddress) {
+      // The path is not a valid authority
+      this.domainSocket = true;
+      this.builder.overrideAuthority("localhost");
+    }
     this.context = (ContextInternal) vertx.getOrCreateContext();
   }
 
@@ -272,34 +318,192 @@ public class VertxChannelBuilder extends ManagedChannelBuilder<VertxChannelBuild
     return this;
   }
 
+  /**
+   * Size the flow control window of the connections automatically from the bandwidth-delay product of the
+   * connection, measured by pinging the server, starting with the {@code initialWindow}. The window grows up to 8MB,
+   * which is the cap of the transport.
+   *
+   * <p>This is the default, with a 1MB initial window.
+   *
+   * @param initialWindow the initial window in bytes
+   * @return this
+   */
+  public VertxChannelBuilder initialFlowControlWindow(int initialWindow) {
+    builder.initialFlowControlWindow(initialWindow);
+    return this;
+  }
+
+  /**
+   * Use a fixed flow control {@code window} for the connections, this disables the automatic sizing of the window.
+   *
+   * @param window the window in bytes
+   * @return this
+   */
+  public VertxChannelBuilder flowControlWindow(int window) {
+    builder.flowControlWindow(window);
+    return this;
+  }
+
+  /**
+   * Spread the calls of the channel over {@code poolSize} event loops, instead of running all its I/O on the event
+   * loop of the context creating the builder. The built channel opens a channel on each event loop and a call uses
+   * the channel of the event loop it is created on, otherwise the channels are used in turn.
+   *
+   * <p>The pool is limited to the number of Vert.x event loops.
+   *
+   * @param poolSize the number of event loops
+   * @return this
+   */
+  public VertxChannelBuilder poolSize(int poolSize) {
+    if (poolSize < 1) {
+      throw new IllegalArgumentException("Pool size must be > 0");
+    }
+    this.poolSize = poolSize;
+    return this;
+  }
+
+  /**
+   * Use the {@code consistent_hash} load balancing policy, the calls with the same value of the {@code header}
+   * metadata, or of the {@link ConsistentHashLoadBalancerProvider#HASH_KEY} call option, go to the same backend.
+   *
+   * <p>This sets the default service config of the channel, a service config provided by the name resolver takes
+   * precedence.
+   *
+   * @param header the metadata header to hash or {@code null} to only use the call option
+   * @return this
+   */
+  public VertxChannelBuilder consistentHash(String header) {
+    if (header != null) {
+      // Fail early with an invalid header name
+      new ConsistentHashLoadBalancer.Config(header, ConsistentHashLoadBalancerProvider.DEFAULT_REPLICAS);
+    }
+    builder.defaultServiceConfig(ConsistentHashLoadBalancerProvider.serviceConfig(header));
+    return this;
+  }
+
   public VertxChannelBuilder useSsl(Handler<ClientOptionsBase> handler) {
     handler.handle(options);
     return this;
   }
 
+  /**
+   * Like {@link #build()} but the SSL context is built asynchronously, this should be used on an event loop.
+   *
+   * @return a future of the channel
+   */
+  public Future<ManagedChannel> buildAsync() {
+    return sslContext().map(ctx -> build(ctx));
+  }
+
   @Override
   public ManagedChannel build() {
+    SslContext ctx;
+    try {
+      ctx = sslContext().toCompletionStage().toCompletableFuture().get(1, TimeUnit.MINUTES);
+    } catch (InterruptedException e) {
+      throw new VertxException(e);
+    } catch (ExecutionException e) {
+      throw new VertxException(e.getCause());
+    } catch (TimeoutException e) {
+      throw new VertxException(e);
+    }
+    return build(ctx);
+  }
+
+  /**
+   * Update the channels built by this builder with new SSL {@code options}, new connections use the new options
+   * while the established connections are kept open.
+   *
+   * @param options the new SSL options
+   * @return a future signaling the update success
+   */
+  public Future<Void> updateSSLOptions(SSLOptions options) {
+    List<ReloadableSslContext> current;
+    synchronized (sslContexts) {
+      current = new ArrayList<>(sslContexts);
+    }
+    if (current.isEmpty()) {
+      return context.failedFuture(new IllegalStateException("No channel using SSL has been built"));
+    }
+    // A context for each channel, since each channel releases its previous context
+    List<Future<Void>> futures = new ArrayList<>();
+    for (ReloadableSslContext sslContext : current) {
+      futures.add(sslContext(options).map(ctx -> {
+        sslContext.update(ctx);
+        return null;
+      }));
+    }
+    return Future.all(futures).mapEmpty();
+  }
+
+  private Future<SslContext> sslContext() {
+    if (!options.isSsl()) {
+      return Future.succeededFuture();
+    }
+    return sslContext(options.getSslOptions());
+  }
+
+  private Future<SslContext> sslContext(SSLOptions sslOptions) {
+    ContextInternal other = ((VertxInternal) vertx).createWorkerContext();
+    SSLHelper helper = new SSLHelper(options, Collections.singletonList(HttpVersion.HTTP_2.alpnName()));
+    return helper
+      .buildContextProvider(sslOptions, other)
+      .map(provider -> provider.createClientContext(null, true, options.isTrustAll()));
+  }
+
+  private ManagedChannel build(SslContext ctx) {
     // SSL
-    if (options.isSsl()) {
-      ContextInternal other = ((VertxInternal) vertx).createWorkerContext();
-      SslContextProvider provider;
-      try {
-        SSLHelper helper = new SSLHelper(options, Collections.singletonList(HttpVersion.HTTP_2.alpnName()));
-        provider = helper.buildContextProvider(options.getSslOptions(), other).toCompletionStage().toCompletableFuture().get(1, TimeUnit.MINUTES);
-      } catch (InterruptedException e) {
-        throw new VertxException(e);
-      } catch (ExecutionException e) {
-        throw new VertxException(e.getCause());
-      } catch (TimeoutException e) {
-        throw new VertxException(e);
+    if (ctx != null) {
+      // Shared by the channels of a pool
+      ReloadableSslContext sslContext = new ReloadableSslContext(ctx);
+      sslContexts.add(sslContext);
+      builder.sslContext(sslContext);
+    }
+    VertxMetrics vertxMetrics = ((VertxInternal) vertx).metricsSPI();
+    if (!metricsInstalled && vertxMetrics instanceof GrpcMetricsFactory) {
+      metricsInstalled = true;
+      GrpcClientMetrics<?> metrics = ((GrpcMetricsFactory) vertxMetrics).createGrpcClientMetrics(target);
+      if (metrics != null) {
+        builder.intercept(MetricsClientInterceptor.create(metrics));
       }
-      SslContext ctx = provider.createClientContext(null, true, options.isTrustAll());
-      builder.sslContext(ctx);
+    }
+    if (!callerContextInstalled) {
+      callerContextInstalled = true;
+      // Added last, so it is called first and the other interceptors can still set their own executor
+      builder.intercept(CallerContextInterceptor.INSTANCE);
     }
     Transport transport = ((VertxInternal) vertx).transport();
+    if (domainSocket && !transport.supportsDomainSockets()) {
+      throw new IllegalStateException("Domain sockets require a native transport");
+    }
+    builder.channelFactory(transport.channelFactory(domainSocket));
+    if (poolSize <= 1) {
+      return build(context);
+    }
+    // The event loop of the builder context first, then the other event loops
+    List<EventLoop> eventLoops = new ArrayList<>();
+    eventLoops.add(context.nettyEventLoop());
+    for (EventExecutor executor : ((VertxInternal) vertx).getEventLoopGroup()) {
+      if (eventLoops.size() >= poolSize) {
+        break;
+      }
+      if (executor instanceof EventLoop && !eventLoops.contains(executor)) {
+        eventLoops.add((EventLoop) executor);
+      }
+    }
+    List<ManagedChannel> channels = new ArrayList<>();
+    for (EventLoop eventLoop : eventLoops) {
+      ContextInternal ctx = eventLoop == context.nettyEventLoop() ?
+        context :
+        ((VertxInternal) vertx).createEventLoopContext(eventLoop, null, Thread.currentThread().getContextClassLoader());
+      channels.add(build(ctx));
+    }
+    return channels.size() == 1 ? channels.get(0) : new ChannelPool(channels, eventLoops);
+  }
+
+  private ManagedChannel build(ContextInternal context) {
     return builder
       .eventLoopGroup(context.nettyEventLoop())
-      .channelFactory(transport.channelFactory(false))
       .executor(command -> {
       if (Context.isOnEventLoopThread()) {
         context.dispatch(event -> command.run());
@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2011-2023 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.grpc;
+
+import com.google.common.net.InetAddresses;
+import io.grpc.EquivalentAddressGroup;
+import io.grpc.NameResolver;
+import io.grpc.Status;
+import io.grpc.SynchronizationContext;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.dns.DnsClient;
+import io.vertx.core.dns.DnsClientOptions;
+import io.vertx.core.dns.SrvRecord;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A name resolver backed by the Vert.x {@code DnsClient}, the state is only accessed from the synchronization context
+ * of the channel.
+ */
+class VertxNameResolver extends NameResolver {
+
+  /**
+   * The addresses of a resolution and the time they can be cached.
+   */
+  private static class Resolution {
+
+    final List<EquivalentAddressGroup> addresses;
+    final long ttl;
+
+    Resolution(List<EquivalentAddressGroup> addresses, long ttl) {
+      this.addresses = addresses;
+      this.ttl = ttl;
+    }
+  }
+
+  private final Vertx vertx;
+  private final DnsClientOptions options;
+  private final String name;
+  private final String authority;
+  private final String host;
+  private final int port;
+  private final boolean srv;
+  private final long ttl;
+  private final SynchronizationContext syncContext;
+  private DnsClient client;
+  private Listener2 listener;
+  private List<EquivalentAddressGroup> addresses;
+  private long expiresAt;
+  private boolean resolving;
+  private boolean shutdown;
+  private long timerId = -1L;
+
+  VertxNameResolver(Vertx vertx, DnsClientOptions options, String name, long ttl, Args args) {
+    this.vertx = vertx;
+    this.options = options;
+    this.name = name;
+    this.ttl = ttl;
+    this.syncContext = args.getSynchronizationContext();
+    this.authority = name;
+    if (name.startsWith("_")) {
+      // A service name, e.g _grpc._tcp.example.com
+      this.srv = true;
+      this.host = name;
+      this.port = -1;
+    } else {
+      URI uri = URI.create("//" + name);
+      if (uri.getHost() == null) {
+        throw new IllegalArgumentException("Invalid name " + name);
+      }
+      String host = uri.getHost();
+      if (host.startsWith("[") && host.endsWith("]")) {
+        // An IPv6 literal, e.g [::1]
+        host = host.substring(1, host.length() - 1);
+      }
+      this.srv = false;
+      this.host = host;
+      this.port = uri.getPort() == -1 ? args.getDefaultPort() : uri.getPort();
+    }
+  }
+
+  @Override
+  public String getServiceAuthority() {
+    return authority;
+  }
+
+  @Override
+  public void start(Listener2 listener) {
+    this.listener = listener;
+    this.client = vertx.createDnsClient(options);
+    resolve();
+  }
+
+  @Override
+  public void refresh() {
+    if (resolving || shutdown) {
+      return;
+    }
+    if (addresses != null && System.nanoTime() - expiresAt < 0L) {
+      // Cached, the background refresh resolves the name again when it expires
+      return;
+    }
+    resolve();
+  }
+
+  @Override
+  public void shutdown() {
+    if (shutdown) {
+      return;
+    }
+    shutdown = true;
+    if (timerId != -1L) {
+      vertx.cancelTimer(timerId);
+    }
+    if (client != null) {
+      client.close();
+    }
+  }
+
+  private void resolve() {
+    if (timerId != -1L) {
+      // Resolved before the TTL expired, the next refresh is scheduled from this resolution
+      vertx.cancelTimer(timerId);
+      timerId = -1L;
+    }
+    resolving = true;
+    Future<Resolution> fut = srv ? resolveSrv() : resolveHost(host, port).map(list -> new Resolution(list, ttl));
+    fut.onComplete(ar -> syncContext.execute(() -> handle(ar)));
+  }
+
+  private void handle(AsyncResult<Resolution> ar) {
+    resolving = false;
+    if (shutdown) {
+      return;
+    }
+    if (ar.failed()) {
+      // The channel refreshes again with a backoff
+      listener.onError(Status.UNAVAILABLE.withDescription("Unable to resolve " + name).withCause(ar.cause()));
+      return;
+    }
+    Resolution resolution = ar.result();
+    if (resolution.addresses.isEmpty()) {
+      listener.onError(Status.UNAVAILABLE.withDescription("No address found for " + name));
+      return;
+    }
+    expiresAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(resolution.ttl);
+    if (!resolution.addresses.equals(addresses)) {
+      addresses = resolution.addresses;
+      listener.onResult(ResolutionResult.newBuilder().setAddresses(addresses).build());
+    }
+    timerId = vertx.setTimer(resolution.ttl, id -> syncContext.execute(() -> {
+      if (id != timerId) {
+        // Cancelled after it fired
+        return;
+      }
+      timerId = -1L;
+      if (!resolving && !shutdown) {
+        resolve();
+      }
+    }));
+  }
+
+  /**
+   * Resolve the targets of the {@code SRV} records, the groups of records are tried by increasing priority and the
+   * addresses of the first group having a resolvable target are used. The weights are ignored, the load balancing
+   * policy of the channel spreads the calls on the addresses.
+   */
+  private Future<Resolution> resolveSrv() {
+    return client.resolveSRV(host).compose(records -> {
+      Map<Integer, List<SrvRecord>> priorities = new TreeMap<>();
+      long min = ttl;
+      for (SrvRecord record : records) {
+        if (record.ttl() > 0L) {
+          min = Math.min(min, TimeUnit.SECONDS.toMillis(record.ttl()));
+        }
+        priorities.computeIfAbsent(record.priority(), p -> new ArrayList<>()).add(record);
+      }
+      Future<List<EquivalentAddressGroup>> result = Future.succeededFuture(Collections.emptyList());
+      for (List<SrvRecord> group : priorities.values()) {
+        // A lower priority group is only resolved when the previous groups have no address
+        result = result.compose(list -> list.isEmpty() ? resolveTargets(group) : Future.succeededFuture(list));
+      }
+      long recordsTtl = min;
+      return result.map(list -> new Resolution(list, recordsTtl));
+    });
+  }
+
+  private Future<List<EquivalentAddressGroup>> resolveTargets(List<SrvRecord> records) {
+    List<Future<List<EquivalentAddressGroup>>> lookups = new ArrayList<>();
+    for (SrvRecord record : records) {
+      // An unresolvable target does not fail the other ones
+      lookups.add(resolveHost(record.target(), record.port()).otherwise(Collections.emptyList()));
+    }
+    Future<List<EquivalentAddressGroup>> result = Future.succeededFuture(new ArrayList<>());
+    for (Future<List<EquivalentAddressGroup>> lookup : lookups) {
+      result = result.compose(list -> lookup.map(groups -> {
+        list.addAll(groups);
+        return list;
+      }));
+    }
+    return result;
+  }
+
+  private Future<List<EquivalentAddressGroup>> resolveHost(String host, int port) {
+    if (InetAddresses.isInetAddress(host)) {
+      return Future.succeededFuture(Collections.singletonList(new EquivalentAddressGroup(new InetSocketAddress(InetAddresses.forString(host), port))));
+    }
+    // Query both families at once
+    Future<List<String>> a = client.resolveA(host);
+    Future<List<String>> aaaa = client.resolveAAAA(host);
+    return a.transform(ar1 -> aaaa.transform(ar2 -> {
+      if (ar1.failed() && ar2.failed()) {
+        return Future.failedFuture(ar1.cause());
+      }
+      List<EquivalentAddressGroup> groups = new ArrayList<>();
+      addAll(groups, ar1, port);
+      addAll(groups, ar2, port);
+      return Future.succeededFuture(groups);
+    }));
+  }
+
+  private static void addAll(List<EquivalentAddressGroup> groups, AsyncResult<List<String>> ar, int port) {
+    if (ar.succeeded()) {
+      for (String address : ar.result()) {
+        groups.add(new EquivalentAddressGroup(new InetSocketAddress(InetAddresses.forString(address), port)));
+      }
+    }
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2011-2023 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.grpc;
+
+import io.grpc.NameResolver;
+import io.grpc.NameResolverProvider;
+import io.grpc.NameResolverRegistry;
+import io.vertx.core.Vertx;
+import io.vertx.core.dns.DnsClientOptions;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A name resolver provider for the {@code vertx-dns} scheme, resolving the names with the non-blocking Vert.x
+ * {@code DnsClient} instead of blocking {@code InetAddress} lookups.
+ *
+ * <p>The targets have the form {@code vertx-dns://[dns-server[:port]]/name}:
+ *
+ * <ul>
+ *   <li>{@code vertx-dns:///example.com:8080} resolves the {@code A} and {@code AAAA} records of {@code example.com}
+ *   with the port {@code 8080}</li>
+ *   <li>{@code vertx-dns:///_grpc._tcp.example.com} resolves the {@code SRV} records of the name, then the {@code A} and
+ *   {@code AAAA} records of their targets with the port of each record, only the records of the lowest priority having
+ *   a resolvable target are used</li>
+ *   <li>the optional authority is the DNS server to query, otherwise the server of the {@code DnsClientOptions}</li>
+ * </ul>
+ *
+ * <p>The addresses are cached for the {@code SRV} records TTL, or for the configured TTL with address records whose
+ * TTL is not reported by the client, and resolved again in the background when they expire. The channel is only
+ * updated when the addresses change and refreshing a cached resolution does nothing.
+ *
+ * <p>{@code VertxChannelBuilder} registers this provider for its channels.
+ */
+public class VertxNameResolverProvider extends NameResolverProvider {
+
+  public static final String SCHEME = "vertx-dns";
+  public static final long DEFAULT_TTL = 30_000L;
+
+  private final Vertx vertx;
+  private final DnsClientOptions options;
+  private long ttl = DEFAULT_TTL;
+
+  /**
+   * Create a provider querying the DNS server of the default {@code DnsClientOptions}.
+   *
+   * @param vertx the vertx instance
+   */
+  public VertxNameResolverProvider(Vertx vertx) {
+    this(vertx, new DnsClientOptions());
+  }
+
+  /**
+   * Create a provider using the DNS client {@code options}.
+   *
+   * @param vertx the vertx instance
+   * @param options the DNS client options
+   */
+  public VertxNameResolverProvider(Vertx vertx, DnsClientOptions options) {
+    this.vertx = vertx;
+    this.options = new DnsClientOptions(options);
+  }
+
+  /**
+   * Set the time the addresses are cached when it is not given by the DNS records.
+   *
+   * @param ttl the time to live
+   * @param unit the time unit
+   * @return a reference to this, so the API can be used fluently
+   */
+  public VertxNameResolverProvider setTtl(long ttl, TimeUnit unit) {
+    if (ttl <= 0L) {
+      throw new IllegalArgumentException("TTL must be > 0");
+    }
+    this.ttl = unit.toMillis(ttl);
+    return this;
+  }
+
+  @Override
+  protected boolean isAvailable() {
+    return true;
+  }
+
+  @Override
+  protected int priority() {
+    return 5;
+  }
+
+  @Override
+  public String getDefaultScheme() {
+    return SCHEME;
+  }
+
+  @Override
+  public NameResolver newNameResolver(URI targetUri, NameResolver.Args args) {
+    if (!SCHEME.equals(targetUri.getScheme())) {
+      return null;
+    }
+    String path = targetUri.getPath();
+    if (path == null || !path.startsWith("/") || path.length() == 1) {
+      throw new IllegalArgumentException("The path of " + targetUri + " must be the name to resolve");
+    }
+    DnsClientOptions clientOptions = new DnsClientOptions(options);
+    String authority = targetUri.getAuthority();
+    if (authority != null && !authority.isEmpty()) {
+      URI server = URI.create("//" + authority);
+      clientOptions.setHost(server.getHost());
+      clientOptions.setPort(server.getPort() == -1 ? 53 : server.getPort());
+    }
+    return new VertxNameResolver(vertx, clientOptions, path.substring(1), ttl, args);
+  }
+
+  /**
+   * @return a factory resolving the {@code vertx-dns} scheme with this provider and the other schemes with the
+   * default registry, e.g {@code dns} remains the default scheme
+   */
+  NameResolver.Factory withDefaultRegistry() {
+    NameResolver.Factory fallback = NameResolverRegistry.getDefaultRegistry().asFactory();
+    return new NameResolver.Factory() {
+      @Override
+      public NameResolver newNameResolver(URI targetUri, NameResolver.Args args) {
+        if (SCHEME.equals(targetUri.getScheme())) {
+          return VertxNameResolverProvider.this.newNameResolver(targetUri, args);
+        }
+        return fallback.newNameResolver(targetUri, args);
+      }
+      @Override
+      public String getDefaultScheme() {
+        return fallback.getDefaultScheme();
+      }
+    };
+  }
+}
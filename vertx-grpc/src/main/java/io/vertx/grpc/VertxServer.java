@@ -15,36 +15,51 @@
  */
 package io.vertx.grpc;
 
+import com.google.common.util.concurrent.ListenableFuture;
+import io.grpc.Attributes;
+import io.grpc.InternalChannelz;
+import io.grpc.InternalInstrumented;
+import io.grpc.InternalWithLogId;
+import io.grpc.Metadata;
 import io.grpc.Server;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallExecutorSupplier;
+import io.grpc.ServerTransportFilter;
 import io.grpc.netty.NettyServerBuilder;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
 import io.netty.handler.ssl.SslContext;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Closeable;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Promise;
-import io.vertx.core.VertxException;
+import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpServerOptions;
 import io.vertx.core.http.HttpVersion;
 import io.vertx.core.impl.ContextInternal;
 import io.vertx.core.impl.future.PromiseInternal;
 import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.net.SSLOptions;
 import io.vertx.core.net.impl.SSLHelper;
 import io.vertx.core.net.impl.ServerID;
-import io.vertx.core.net.impl.SslContextProvider;
 import io.vertx.core.net.impl.VertxEventLoopGroup;
 import io.vertx.core.spi.transport.Transport;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
@@ -55,93 +70,322 @@ public class VertxServer extends Server {
 
   private static final ConcurrentMap<ServerID, ActualServer> map = new ConcurrentHashMap<>();
 
+  /**
+   * Tracks the live transports of a server, so the completion of a graceful shutdown can be signaled without
+   * blocking a thread until the server terminates.
+   */
+  private static class TransportTracker extends ServerTransportFilter {
+
+    private static final Attributes.Key<Boolean> TRACKED = Attributes.Key.create("vertx-tracked");
+
+    private int active;
+    private Promise<Void> drained;
+
+    @Override
+    public Attributes transportReady(Attributes transportAttrs) {
+      synchronized (this) {
+        active++;
+      }
+      return transportAttrs.toBuilder().set(TRACKED, Boolean.TRUE).build();
+    }
+
+    @Override
+    public void transportTerminated(Attributes transportAttrs) {
+      if (transportAttrs == null || transportAttrs.get(TRACKED) == null) {
+        return;
+      }
+      Promise<Void> promise;
+      synchronized (this) {
+        if (--active > 0 || drained == null) {
+          return;
+        }
+        promise = drained;
+      }
+      promise.tryComplete();
+    }
+
+    /**
+     * Complete the {@code promise} when all the transports have terminated.
+     */
+    void whenDrained(Promise<Void> promise) {
+      synchronized (this) {
+        if (active > 0) {
+          drained = promise;
+          return;
+        }
+      }
+      promise.tryComplete();
+    }
+  }
+
+  /**
+   * The contexts of a server bound to an event loop, only accessed from this event loop.
+   */
+  private static class LoopContexts {
+
+    final List<ContextInternal> contexts = new ArrayList<>();
+    private int next;
+
+    ContextInternal next() {
+      if (next >= contexts.size()) {
+        next = 0;
+      }
+      return contexts.get(next++);
+    }
+  }
+
   private static class ActualServer {
 
+    private static final Attributes.Key<Executor> EXECUTOR = Attributes.Key.create("vertx-executor");
+
     final ServerID id;
     final HttpServerOptions options;
     final AtomicInteger count = new AtomicInteger();
-    final VertxEventLoopGroup group = new VertxEventLoopGroup();
-    final Server server;
-    final ThreadLocal<List<ContextInternal>> contextLocal = new ThreadLocal<>();
+    final VertxEventLoopGroup group;
+    final VertxInternal vertx;
+    final Future<Void> ready;
+    final Promise<Void> listening = Promise.promise();
+    volatile Server server;
+    volatile ReloadableSslContext sslContext;
+    final TransportTracker tracker = new TransportTracker();
+    final ThreadLocal<LoopContexts> contextLocal = new ThreadLocal<>();
+    final List<ContextInternal> contexts = new CopyOnWriteArrayList<>();
+    private final Handler<Runnable> handler;
+    private final boolean inlineDispatch;
 
     private ActualServer(VertxInternal vertx,
                          ServerID id,
                          HttpServerOptions options,
                          NettyServerBuilder builder,
-                         Consumer<Runnable> commandDecorator) {
-
-      // SSL
-      if (options.isSsl()) {
-        ContextInternal other = vertx.createWorkerContext();
-        SslContextProvider provider;
-        try {
-          SSLHelper helper = new SSLHelper(options, Collections.singletonList(HttpVersion.HTTP_2.alpnName()));
-          provider = helper.buildContextProvider(options.getSslOptions(), other).toCompletionStage().toCompletableFuture().get(1, TimeUnit.MINUTES);
-        } catch (InterruptedException e) {
-          throw new VertxException(e);
-        } catch (ExecutionException e) {
-          throw new VertxException(e.getCause());
-        } catch (TimeoutException e) {
-          throw new VertxException(e);
-        }
-        SslContext ctx = provider.createServerContext(true);
-        builder.sslContext(ctx);
-      }
+                         Consumer<Runnable> commandDecorator,
+                         boolean inlineDispatch,
+                         boolean leastLoaded,
+                         boolean domainSocket,
+                         EventLoopGroup acceptorGroup,
+                         Map<ChannelOption<?>, Object> channelOptions) {
 
       Transport transport = vertx.transport();
 
+      this.vertx = vertx;
       this.id = id;
+      this.group = leastLoaded ? new LeastLoadedEventLoopGroup() : new VertxEventLoopGroup();
       this.options = options;
-      Executor executor;
-      if (commandDecorator == null) {
-        executor = command -> contextLocal.get().get(0).runOnContext(event -> command.run());
-      }else{
-        executor = command -> contextLocal.get().get(0).runOnContext(event -> commandDecorator.accept(command));
+      this.handler = commandDecorator == null ? Runnable::run : commandDecorator::accept;
+      this.inlineDispatch = inlineDispatch;
+      if (domainSocket && !transport.supportsDomainSockets()) {
+        this.ready = Future.failedFuture(new IllegalStateException("Domain sockets require a native transport"));
+        return;
+      }
+      channelOptions.forEach((option, value) -> withOption(builder, option, value));
+      builder
+        .executor(command -> dispatch(resolveContext(), command))
+        .callExecutor(new ServerCallExecutorSupplier() {
+          @Override
+          public <ReqT, RespT> Executor getExecutor(ServerCall<ReqT, RespT> call, Metadata metadata) {
+            // The executor of the context bound to the connection, null falls back to the server executor
+            return call.getAttributes().get(EXECUTOR);
+          }
+        })
+        .addTransportFilter(tracker)
+        .addTransportFilter(new ContextBinder())
+        .channelFactory(transport.serverChannelFactory(domainSocket))
+        .bossEventLoopGroup(acceptorGroup)
+        .workerEventLoopGroup(group);
+      if (group instanceof LeastLoadedEventLoopGroup) {
+        builder.addStreamTracerFactory(((LeastLoadedEventLoopGroup) group).streamTracerFactory());
       }
-      this.server = builder
-          .executor(executor)
-          .channelFactory(transport.serverChannelFactory(false))
-          .bossEventLoopGroup(vertx.getAcceptorEventLoopGroup())
-          .workerEventLoopGroup(group)
-          .build();
+
+      // The SSL context is built asynchronously, the server is built once it is available
+      Future<SslContext> fut = options.isSsl() ? sslContext(options.getSslOptions()) : Future.succeededFuture();
+      this.ready = fut.map(ctx -> {
+        if (ctx != null) {
+          // The context can be swapped later to rotate the certificates
+          sslContext = new ReloadableSslContext(ctx);
+          builder.sslContext(sslContext);
+        }
+        server = builder.build();
+        return null;
+      });
+    }
+
+    private Future<SslContext> sslContext(SSLOptions sslOptions) {
+      ContextInternal other = vertx.createWorkerContext();
+      SSLHelper helper = new SSLHelper(options, Collections.singletonList(HttpVersion.HTTP_2.alpnName()));
+      return helper
+        .buildContextProvider(sslOptions, other)
+        .map(provider -> provider.createServerContext(true));
+    }
+
+    Future<Void> updateSSLOptions(SSLOptions sslOptions) {
+      return ready.compose(v -> {
+        if (sslContext == null) {
+          return Future.failedFuture(new IllegalStateException("The server is not configured with SSL"));
+        }
+        return sslContext(sslOptions).map(ctx -> {
+          sslContext.update(ctx);
+          return null;
+        });
+      });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void withOption(NettyServerBuilder builder, ChannelOption<T> option, Object value) {
+      builder.withOption(option, (T) value);
+    }
+
+    /**
+     * Returns the server channel options enabling {@code SO_REUSEPORT} with the Vert.x transport, the map is empty
+     * when the transport does not support it.
+     */
+    static Map<ChannelOption<?>, Object> reusePortOptions(VertxInternal vertx, HttpServerOptions options) {
+      if (!vertx.isNativeTransportEnabled()) {
+        return Collections.emptyMap();
+      }
+      // Let the transport configure the options, native transports set their own reuse port option
+      ServerBootstrap bootstrap = new ServerBootstrap();
+      vertx.transport().configure(options, false, bootstrap);
+      Map<ChannelOption<?>, Object> reusePortOptions = new HashMap<>();
+      bootstrap.config().options().forEach((option, value) -> {
+        String name = option.name();
+        if (Boolean.TRUE.equals(value) && (name.endsWith("SO_REUSEPORT") || name.endsWith("SO_REUSE_PORT"))) {
+          reusePortOptions.put(option, value);
+        }
+      });
+      return reusePortOptions;
+    }
+
+    /**
+     * Dispatch a transport event on the {@code ctx}.
+     */
+    private void dispatch(ContextInternal ctx, Runnable command) {
+      if (inlineDispatch && ctx.isEventLoopContext() && ctx.nettyEventLoop().inEventLoop()) {
+        // Already on the event loop of the context, avoid the task queue round trip, a worker context runs the
+        // calls on its worker threads so blocking service code never runs on the event loop
+        ctx.dispatch(command, handler);
+      } else {
+        ctx.runOnContext(event -> handler.handle(command));
+      }
+    }
+
+    /**
+     * Binds each connection to one of the contexts of the event loop accepting it, in turn, so the connections are
+     * spread evenly over the verticle instances sharing an event loop. The calls of the connection are then executed
+     * on this context by the executor set in the transport attributes.
+     */
+    private class ContextBinder extends ServerTransportFilter {
+      @Override
+      public Attributes transportReady(Attributes transportAttrs) {
+        // Called on the event loop of the connection
+        LoopContexts local = contextLocal.get();
+        if (local == null || local.contexts.isEmpty()) {
+          return transportAttrs;
+        }
+        ContextInternal ctx = local.next();
+        Executor executor = command -> dispatch(ctx, command);
+        return transportAttrs.toBuilder().set(EXECUTOR, executor).build();
+      }
+    }
+
+    /**
+     * Resolve the context a transport event should be dispatched to when the connection is not bound to a context
+     * yet.
+     *
+     * <p>The transport calls the executor from the event loop that owns the connection, a context bound to this
+     * event loop is used so the calls of a connection stay on the same thread. When the executor is called from
+     * another thread, the current context is used if it belongs to this server, otherwise any context is used.
+     */
+    ContextInternal resolveContext() {
+      LoopContexts local = contextLocal.get();
+      if (local != null && !local.contexts.isEmpty()) {
+        return local.contexts.get(0);
+      }
+      ContextInternal current = (ContextInternal) Vertx.currentContext();
+      if (current != null && contexts.contains(current)) {
+        return current;
+      }
+      return contexts.get(0);
     }
 
     void start(ContextInternal context, Handler<AsyncResult<Void>> completionHandler) {
       boolean start = count.getAndIncrement() == 0;
       context.runOnContext(v -> {
         if (contextLocal.get() == null) {
-          contextLocal.set(new ArrayList<>());
+          contextLocal.set(new LoopContexts());
         }
         group.addWorker(context.nettyEventLoop());
-        contextLocal.get().add(context);
+        contextLocal.get().contexts.add(context);
+        contexts.add(context);
         if (start) {
-          context.<Void>executeBlocking(() -> {
+          ready.compose(v2 -> context.<Void>executeBlocking(() -> {
             server.start();
             return null;
-          }).onComplete(completionHandler);
-        } else {
-          completionHandler.handle(Future.succeededFuture());
+          })).onComplete(ar -> {
+            if (ar.failed()) {
+              map.remove(id, this);
+            }
+            listening.handle(ar);
+          });
         }
+        listening.future().onComplete(ar -> context.runOnContext(v2 -> completionHandler.handle(ar)));
       });
     }
 
-    void stop(ContextInternal context, Promise<Void> promise) {
+    /**
+     * Stop using this server from the {@code context}, the last context shuts down the server.
+     *
+     * @param graceMillis the time given to the in-flight calls to complete before they are cancelled, a negative
+     *                    value completes the {@code promise} as soon as the server stops accepting new calls
+     */
+    void stop(ContextInternal context, long graceMillis, Promise<Void> promise) {
       boolean shutdown = count.decrementAndGet() == 0;
       context.runOnContext(v -> {
         group.removeWorker(context.nettyEventLoop());
-        contextLocal.get().remove(context);
+        contextLocal.get().contexts.remove(context);
+        contexts.remove(context);
         if (shutdown) {
-          map.remove(id);
-          context.<Void>executeBlocking(() -> {
-            server.shutdown();
-            return null;
-          }).onComplete(promise);
+          map.remove(id, this);
+          // The server might still be waiting for its SSL context
+          ready.transform(ar -> ar.succeeded() ? shutdown(context, graceMillis) : Future.<Void>succeededFuture()).onComplete(promise);
         } else {
           promise.complete();
         }
       });
     }
 
+    private Future<Void> shutdown(ContextInternal context, long graceMillis) {
+      if (graceMillis == 0) {
+        // Cancel in-flight calls right away
+        return shutdownNow(context).compose(v -> drain(context, -1L));
+      } else {
+        return context.<Void>executeBlocking(() -> {
+          // Stop accepting new calls and send GOAWAY to the clients
+          server.shutdown();
+          return null;
+        }).compose(v -> graceMillis < 0 ? Future.<Void>succeededFuture() : drain(context, graceMillis));
+      }
+    }
+
+    Future<Void> shutdownNow(ContextInternal context) {
+      return context.<Void>executeBlocking(() -> {
+        server.shutdownNow();
+        return null;
+      });
+    }
+
+    /**
+     * Wait for the transports to terminate, the in-flight calls are cancelled after {@code graceMillis} when
+     * positive.
+     */
+    private Future<Void> drain(ContextInternal context, long graceMillis) {
+      PromiseInternal<Void> drained = context.promise();
+      if (graceMillis > 0) {
+        long timerId = context.owner().setTimer(graceMillis, id -> shutdownNow(context));
+        drained.future().onComplete(ar -> context.owner().cancelTimer(timerId));
+      }
+      tracker.whenDrained(drained);
+      return drained.future();
+    }
+
   }
 
   private final ServerID id;
@@ -150,18 +394,28 @@ public class VertxServer extends Server {
   private ActualServer actual;
   private final ContextInternal context;
   private final Consumer<Runnable> commandDecorator;
+  private final boolean inlineDispatch;
+  private final boolean leastLoaded;
+  private final boolean domainSocket;
   private Closeable hook;
+  private volatile boolean closed;
 
   VertxServer(ServerID id,
               HttpServerOptions options,
               NettyServerBuilder builder,
               ContextInternal context,
-              Consumer<Runnable> commandDecorator) {
+              Consumer<Runnable> commandDecorator,
+              boolean inlineDispatch,
+              boolean leastLoaded,
+              boolean domainSocket) {
     this.id = id;
     this.options = options;
     this.builder = builder;
     this.context = context;
     this.commandDecorator = commandDecorator;
+    this.inlineDispatch = inlineDispatch;
+    this.leastLoaded = leastLoaded;
+    this.domainSocket = domainSocket;
   }
 
   @Override
@@ -170,10 +424,16 @@ public class VertxServer extends Server {
   }
 
   public VertxServer start(Handler<AsyncResult<Void>> completionHandler) {
-    if (id.port > 0) {
-      actual = map.computeIfAbsent(id, id -> new ActualServer(context.owner(), id, options, builder, commandDecorator));
+    VertxInternal vertx = context.owner();
+    Map<ChannelOption<?>, Object> reusePortOptions = id.port > 0 && options.isReusePort() ?
+      ActualServer.reusePortOptions(vertx, options) : Collections.emptyMap();
+    if (!reusePortOptions.isEmpty()) {
+      // Each instance binds its own socket and accepts on its event loop, the kernel spreads the connections
+      actual = new ActualServer(vertx, id, options, builder, commandDecorator, inlineDispatch, leastLoaded, domainSocket, context.nettyEventLoop(), reusePortOptions);
+    } else if (id.port > 0 || domainSocket) {
+      actual = map.computeIfAbsent(id, id -> new ActualServer(vertx, id, options, builder, commandDecorator, inlineDispatch, leastLoaded, domainSocket, vertx.getAcceptorEventLoopGroup(), Collections.emptyMap()));
     } else {
-      actual = new ActualServer(context.owner(), id, options, builder, commandDecorator);
+      actual = new ActualServer(vertx, id, options, builder, commandDecorator, inlineDispatch, leastLoaded, domainSocket, vertx.getAcceptorEventLoopGroup(), Collections.emptyMap());
     }
     actual.start(context, ar1 -> {
       if (ar1.succeeded()) {
@@ -191,12 +451,111 @@ public class VertxServer extends Server {
   }
 
   public VertxServer shutdown(Promise<Void> completionHandler) {
+    shutdown(-1L, completionHandler);
+    return this;
+  }
+
+  /**
+   * Initiates a graceful shutdown of the server: new calls are rejected and the clients are sent a {@code GOAWAY},
+   * the in-flight calls are given a {@code grace} period to complete after which they are cancelled.
+   *
+   * <p>When the server is shared by several verticle instances, the server is only shut down when the last
+   * instance shuts down.
+   *
+   * <p>A zero {@code grace} cancels the in-flight calls right away, a period shorter than a millisecond is rounded up
+   * to a millisecond.
+   *
+   * @param grace the time given to the in-flight calls to complete
+   * @return a future completed when the server has terminated
+   * @throws IllegalArgumentException when {@code grace} is negative
+   */
+  public Future<Void> shutdown(Duration grace) {
+    Objects.requireNonNull(grace, "grace");
+    if (grace.isNegative()) {
+      throw new IllegalArgumentException("Grace period must be >= 0: " + grace);
+    }
+    PromiseInternal<Void> promise = context.promise();
+    shutdown(grace.isZero() ? 0L : Math.max(1L, grace.toMillis()), promise);
+    return promise.future();
+  }
+
+  private void shutdown(long graceMillis, Promise<Void> completionHandler) {
+    if (closed) {
+      completionHandler.complete();
+      return;
+    }
+    closed = true;
     if (hook != null) {
       context.removeCloseHook(hook);
     }
     PromiseInternal<Void> promise = context.promise(completionHandler);
-    actual.stop(context, promise);
-    return this;
+    actual.stop(context, graceMillis, promise);
+  }
+
+  /**
+   * Update the server with new SSL {@code options}, a new SSL context is built from the options and replaces the
+   * current context when the build succeeds, otherwise the current context is kept and the future fails.
+   *
+   * <p>The new options are used by new connections, the established connections are kept open.
+   *
+   * @param options the new SSL options
+   * @return a future signaling the update success
+   */
+  public Future<Void> updateSSLOptions(SSLOptions options) {
+    if (actual == null) {
+      return context.failedFuture(new IllegalStateException("The server is not started"));
+    }
+    PromiseInternal<Void> promise = context.promise();
+    actual.updateSSLOptions(options).onComplete(promise);
+    return promise.future();
+  }
+
+  /**
+   * Sample the flow control windows of the open connections of the server, this shows how the automatic flow
+   * control sized the windows.
+   *
+   * @return a future completed with the windows of each connection
+   */
+  public Future<List<FlowControlWindow>> flowControlWindows() {
+    if (actual == null || actual.server == null) {
+      return context.failedFuture(new IllegalStateException("The server is not started"));
+    }
+    PromiseInternal<List<FlowControlWindow>> promise = context.promise();
+    InternalChannelz channelz = InternalChannelz.instance();
+    InternalChannelz.ServerSocketsList sockets = actual.server instanceof InternalInstrumented ?
+      channelz.getServerSockets(((InternalInstrumented<?>) actual.server).getLogId().getId(), 0L, Integer.MAX_VALUE) :
+      null;
+    if (sockets == null || sockets.sockets.isEmpty()) {
+      promise.complete(Collections.emptyList());
+      return promise.future();
+    }
+    List<FlowControlWindow> windows = Collections.synchronizedList(new ArrayList<>());
+    AtomicInteger pending = new AtomicInteger(sockets.sockets.size());
+    for (InternalWithLogId socket : sockets.sockets) {
+      InternalInstrumented<InternalChannelz.SocketStats> instrumented = channelz.getSocket(socket.getLogId().getId());
+      if (instrumented == null) {
+        // Closed since the listing
+        if (pending.decrementAndGet() == 0) {
+          promise.complete(windows);
+        }
+        continue;
+      }
+      ListenableFuture<InternalChannelz.SocketStats> stats = instrumented.getStats();
+      stats.addListener(() -> {
+        try {
+          InternalChannelz.SocketStats s = stats.get();
+          long localWindow = s.data != null ? s.data.localFlowControlWindow : -1L;
+          long remoteWindow = s.data != null ? s.data.remoteFlowControlWindow : -1L;
+          windows.add(new FlowControlWindow(s.remote, localWindow, remoteWindow));
+        } catch (Exception ignore) {
+          // The connection closed meanwhile
+        }
+        if (pending.decrementAndGet() == 0) {
+          promise.complete(windows);
+        }
+      }, Runnable::run);
+    }
+    return promise.future();
   }
 
   @Override
@@ -206,12 +565,20 @@ public class VertxServer extends Server {
 
   @Override
   public VertxServer shutdownNow() {
-    throw new UnsupportedOperationException();
+    if (closed) {
+      if (actual.count.get() == 0) {
+        // A graceful shutdown is in progress, cancel the in-flight calls
+        actual.shutdownNow(context);
+      }
+    } else {
+      shutdown(0L, Promise.promise());
+    }
+    return this;
   }
 
   @Override
   public boolean isShutdown() {
-    throw new UnsupportedOperationException();
+    return closed || (actual != null && actual.server != null && actual.server.isShutdown());
   }
 
   @Override
@@ -17,12 +17,18 @@ package io.vertx.grpc;
 
 import io.grpc.*;
 import io.grpc.netty.NettyServerBuilder;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.unix.DomainSocketAddress;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.http.Http2Settings;
 import io.vertx.core.http.HttpServerOptions;
 import io.vertx.core.impl.ContextInternal;
 import io.vertx.core.impl.VertxInternal;
 import io.vertx.core.net.impl.ServerID;
+import io.vertx.grpc.spi.metrics.GrpcMetricsFactory;
+import io.vertx.grpc.spi.metrics.GrpcServerMetrics;
 
 import javax.annotation.Nullable;
 import java.io.File;
@@ -46,6 +52,18 @@ public class VertxServerBuilder extends ServerBuilder<VertxServerBuilder> {
     return new VertxServerBuilder(vertx, address);
   }
 
+  /**
+   * Create a builder for a server bound to a Vert.x {@code address}, which can be a domain socket address when the
+   * native transport is used.
+   *
+   * @param vertx the vertx instance
+   * @param address the address
+   * @return the builder
+   */
+  public static VertxServerBuilder forAddress(Vertx vertx, io.vertx.core.net.SocketAddress address) {
+    return new VertxServerBuilder(vertx, ((VertxInternal) vertx).transport().convert(address));
+  }
+
   public static VertxServerBuilder forAddress(Vertx vertx, String host, int port) {
     return new VertxServerBuilder(vertx, new InetSocketAddress(host, port));
   }
@@ -55,17 +73,35 @@ public class VertxServerBuilder extends ServerBuilder<VertxServerBuilder> {
   private final NettyServerBuilder builder;
   private final HttpServerOptions options = new HttpServerOptions();
   private Consumer<Runnable> commandDecorator;
+  private boolean inlineDispatch;
+  private boolean leastLoaded;
+  private boolean metricsInstalled;
+  private boolean domainSocket;
+  // The settings set explicitly take precedence over the options
+  private boolean flowControlWindowSet;
+  private boolean maxInboundMetadataSizeSet;
 
   private VertxServerBuilder(Vertx vertx, int port) {
     this.id = new ServerID(port, "0.0.0.0");
     this.vertx = (VertxInternal) vertx;
-    this.builder = NettyServerBuilder.forPort(port);
+    this.builder = NettyServerBuilder.forPort(port)
+      .compressorRegistry(Codecs.compressorRegistry())
+      .decompressorRegistry(Codecs.decompressorRegistry());
   }
 
   private VertxServerBuilder(Vertx vertx, SocketAddress address) {
-    this.id = new ServerID(((InetSocketAddress) address).getPort(), ((InetSocketAddress) address).getHostString());
+    if (address instanceof InetSocketAddress) {
+      this.id = new ServerID(((InetSocketAddress) address).getPort(), ((InetSocketAddress) address).getHostString());
+    } else if (address instanceof DomainSocketAddress) {
+      this.id = new ServerID(-1, ((DomainSocketAddress) address).path());
+      this.domainSocket = true;
+    } else {
+      throw new IllegalArgumentException("Unsupported address " + address);
+    }
     this.vertx = (VertxInternal) vertx;
-    this.builder = NettyServerBuilder.forAddress(address);
+    this.builder = NettyServerBuilder.forAddress(address)
+      .compressorRegistry(Codecs.compressorRegistry())
+      .decompressorRegistry(Codecs.decompressorRegistry());
   }
 
   /**
@@ -158,6 +194,35 @@ public class VertxServerBuilder extends ServerBuilder<VertxServerBuilder> {
   @Override
   public VertxServerBuilder maxInboundMetadataSize(int bytes) {
     builder.maxInboundMetadataSize(bytes);
+    maxInboundMetadataSizeSet = true;
+    return this;
+  }
+
+  /**
+   * Size the flow control window of the connections automatically from the bandwidth-delay product of the
+   * connection, measured by pinging the client, starting with the {@code initialWindow}. The window grows up to 8MB,
+   * which is the cap of the transport.
+   *
+   * <p>This is the default, with a 1MB initial window.
+   *
+   * @param initialWindow the initial window in bytes
+   * @return this
+   */
+  public VertxServerBuilder initialFlowControlWindow(int initialWindow) {
+    builder.initialFlowControlWindow(initialWindow);
+    flowControlWindowSet = true;
+    return this;
+  }
+
+  /**
+   * Use a fixed flow control {@code window} for the connections, this disables the automatic sizing of the window.
+   *
+   * @param window the window in bytes
+   * @return this
+   */
+  public VertxServerBuilder flowControlWindow(int window) {
+    builder.flowControlWindow(window);
+    flowControlWindowSet = true;
     return this;
   }
 
@@ -166,6 +231,31 @@ public class VertxServerBuilder extends ServerBuilder<VertxServerBuilder> {
     return this;
   }
 
+  /**
+   * Configure the server with Vert.x {@code HttpServerOptions}, the options not related to SSL are mapped on the
+   * transport when the server is built:
+   *
+   * <ul>
+   *   <li>the TCP options, e.g. {@code TCP_NODELAY}, {@code TCP_FASTOPEN}, {@code TCP_QUICKACK}, the send and receive
+   *   buffer sizes or the accept backlog, configure the server and connection channels like a Vert.x server</li>
+   *   <li>the initial HTTP/2 window size sets a fixed flow control window</li>
+   *   <li>the HTTP/2 max concurrent streams limits the concurrent calls per connection</li>
+   *   <li>the HTTP/2 max header list size limits the size of the received metadata</li>
+   *   <li>the idle timeout closes the connections without calls after this timeout</li>
+   * </ul>
+   *
+   * <p>The HTTP/2 settings left to their Vert.x default keep the grpc default, e.g a 1MB flow control window and
+   * no concurrent streams limit. Likewise TCP keep alive stays enabled unless it is enabled in the options. The flow
+   * control window and the max inbound metadata size set on this builder take precedence over the options.
+   *
+   * @param handler the handler configuring the options
+   * @return this
+   */
+  public VertxServerBuilder useOptions(Handler<HttpServerOptions> handler) {
+    handler.handle(options);
+    return this;
+  }
+
   /**
    * Add a command decorator for the grpc calls.
    * The decorator provides a way to invoke arbitrary code before handling of the grpc request starts
@@ -178,8 +268,129 @@ public class VertxServerBuilder extends ServerBuilder<VertxServerBuilder> {
     return this;
   }
 
+  /**
+   * Set whether each verticle instance binds its own socket with {@code SO_REUSEPORT} instead of sharing a single
+   * server, so the kernel spreads the incoming connections on the instances.
+   *
+   * <p>This requires a native transport supporting {@code SO_REUSEPORT}, otherwise the instances share a single
+   * server as usual.
+   *
+   * @param reusePort {@code true} to bind a socket per verticle instance
+   * @return this
+   */
+  public VertxServerBuilder reusePort(boolean reusePort) {
+    options.setReusePort(reusePort);
+    return this;
+  }
+
+  /**
+   * Set whether the grpc calls are dispatched inline when the transport is already running on the event loop of
+   * the context handling the call, instead of being scheduled on this context. This saves a task queue round trip
+   * for each event of a call.
+   *
+   * <p>The calls handled by a worker context are always scheduled on this context.
+   *
+   * @param inlineDispatch {@code true} to dispatch the calls inline
+   * @return this
+   */
+  public VertxServerBuilder inlineDispatch(boolean inlineDispatch) {
+    this.inlineDispatch = inlineDispatch;
+    return this;
+  }
+
+  /**
+   * Set whether the connections are placed on the event loop of the verticle instance with the fewest active
+   * streams, ties being broken by the number of open connections then by the number of tasks pending on the event
+   * loops, instead of a round-robin.
+   *
+   * @param leastLoaded {@code true} to place the connections on the least loaded event loop
+   * @return this
+   */
+  public VertxServerBuilder leastLoaded(boolean leastLoaded) {
+    this.leastLoaded = leastLoaded;
+    return this;
+  }
+
+  /**
+   * Limit the number of concurrent calls of each method with an adaptive {@code limiter}, calls over the limit are
+   * rejected with {@code RESOURCE_EXHAUSTED}.
+   *
+   * @param limiter the limiter
+   * @return this
+   */
+  public VertxServerBuilder concurrencyLimiter(AdaptiveConcurrencyLimiter limiter) {
+    return intercept(limiter);
+  }
+
+  /**
+   * Decide for each response message whether it is compressed with a compression {@code policy}.
+   *
+   * @param policy the policy
+   * @return this
+   */
+  public VertxServerBuilder compressionPolicy(CompressionPolicy policy) {
+    return intercept(policy);
+  }
+
   public VertxServer build() {
     ContextInternal context = vertx.getOrCreateContext();
-    return new VertxServer(id, options, builder, context, commandDecorator);
+    if (!metricsInstalled && vertx.metricsSPI() instanceof GrpcMetricsFactory) {
+      metricsInstalled = true;
+      io.vertx.core.net.SocketAddress localAddress = domainSocket
+        ? io.vertx.core.net.SocketAddress.domainSocketAddress(id.host)
+        : io.vertx.core.net.SocketAddress.inetSocketAddress(id.port, id.host);
+      GrpcServerMetrics<?> metrics = ((GrpcMetricsFactory) vertx.metricsSPI()).createGrpcServerMetrics(localAddress);
+      if (metrics != null) {
+        // Added last, so it is called first and observes all the calls
+        builder.intercept(MetricsServerInterceptor.create(metrics));
+      }
+    }
+    applyOptions();
+    return new VertxServer(id, options, builder, context, commandDecorator, inlineDispatch, leastLoaded, domainSocket);
+  }
+
+  /**
+   * Map the options on the Netty builder, the channel options are obtained from the transport as for a Vert.x server.
+   */
+  private void applyOptions() {
+    ServerBootstrap bootstrap = new ServerBootstrap();
+    vertx.transport().configure(options, domainSocket, bootstrap);
+    bootstrap.config().options().forEach((option, value) -> {
+      String name = option.name();
+      // Reuse port is handled per verticle instance by the server
+      if (!name.endsWith("SO_REUSEPORT") && !name.endsWith("SO_REUSE_PORT")) {
+        withOption(option, value);
+      }
+    });
+    bootstrap.config().childOptions().forEach((option, value) -> {
+      // Keep the grpc default that enables TCP keep alive
+      if (option != ChannelOption.SO_KEEPALIVE || Boolean.TRUE.equals(value)) {
+        withChildOption(option, value);
+      }
+    });
+    Http2Settings settings = options.getInitialSettings();
+    Http2Settings defaults = new HttpServerOptions().getInitialSettings();
+    if (!flowControlWindowSet && settings.getInitialWindowSize() != defaults.getInitialWindowSize()) {
+      builder.flowControlWindow(settings.getInitialWindowSize());
+    }
+    if (settings.getMaxConcurrentStreams() != defaults.getMaxConcurrentStreams()) {
+      builder.maxConcurrentCallsPerConnection((int) Math.min(Integer.MAX_VALUE, settings.getMaxConcurrentStreams()));
+    }
+    if (!maxInboundMetadataSizeSet && settings.getMaxHeaderListSize() != defaults.getMaxHeaderListSize()) {
+      builder.maxInboundMetadataSize((int) Math.min(Integer.MAX_VALUE, settings.getMaxHeaderListSize()));
+    }
+    if (options.getIdleTimeout() > 0) {
+      builder.maxConnectionIdle(options.getIdleTimeout(), options.getIdleTimeoutUnit());
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> void withOption(ChannelOption<T> option, Object value) {
+    builder.withOption(option, (T) value);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> void withChildOption(ChannelOption<T> option, Object value) {
+    builder.withChildOption(option, (T) value);
   }
 }
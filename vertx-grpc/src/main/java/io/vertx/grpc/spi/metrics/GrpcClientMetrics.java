@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2011-2023 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.grpc.spi.metrics;
+
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+
+/**
+ * The metrics of the calls sent by a gRPC channel.
+ *
+ * <p>The methods are called on the hot path of each call, from any thread, implementations should record without
+ * locking nor allocating, like {@link GrpcMethodMetrics} does.
+ *
+ * @param <M> the type of the metric of a method
+ */
+public interface GrpcClientMetrics<M> {
+
+  /**
+   * Provides the metric of a {@code method}, called once per method, the result is reused for the next calls.
+   *
+   * @param method the method
+   * @return the method metric
+   */
+  default M methodMetric(MethodDescriptor<?, ?> method) {
+    return null;
+  }
+
+  /**
+   * Called when a call begins.
+   *
+   * @param methodMetric the method metric
+   */
+  default void requestBegin(M methodMetric) {
+  }
+
+  /**
+   * Called when a call ends.
+   *
+   * @param methodMetric the method metric
+   * @param code the status code of the call
+   * @param latencyNanos the duration of the call in nanoseconds
+   */
+  default void requestEnd(M methodMetric, Status.Code code, long latencyNanos) {
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2011-2023 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.grpc.spi.metrics;
+
+import io.grpc.Status;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free recorder of the metrics of a method: request count, status codes and latency histogram.
+ *
+ * <p>This can be used as the method metric of a {@link GrpcServerMetrics} or {@link GrpcClientMetrics}
+ * implementation.
+ */
+public class GrpcMethodMetrics {
+
+  private final String name;
+  private final LongAdder requests = new LongAdder();
+  private final AtomicLongArray codes = new AtomicLongArray(Status.Code.values().length);
+  private final LatencyHistogram latency = new LatencyHistogram();
+  private final AtomicLongArray compressions = new AtomicLongArray(GrpcServerMetrics.CompressionDecision.values().length);
+
+  public GrpcMethodMetrics(String name) {
+    this.name = name;
+  }
+
+  /**
+   * @return the full name of the method
+   */
+  public String name() {
+    return name;
+  }
+
+  public void requestBegin() {
+    requests.increment();
+  }
+
+  public void requestEnd(Status.Code code, long latencyNanos) {
+    codes.incrementAndGet(code.value());
+    latency.record(latencyNanos);
+  }
+
+  public void messageCompression(GrpcServerMetrics.CompressionDecision decision) {
+    compressions.incrementAndGet(decision.ordinal());
+  }
+
+  /**
+   * @return the number of calls that began
+   */
+  public long requests() {
+    return requests.sum();
+  }
+
+  /**
+   * @param code the status code
+   * @return the number of calls that ended with the status {@code code}
+   */
+  public long count(Status.Code code) {
+    return codes.get(code.value());
+  }
+
+  /**
+   * @return the latency histogram of the calls
+   */
+  public LatencyHistogram latency() {
+    return latency;
+  }
+
+  /**
+   * @param decision the decision of a compression policy
+   * @return the number of response messages with this {@code decision}
+   */
+  public long count(GrpcServerMetrics.CompressionDecision decision) {
+    return compressions.get(decision.ordinal());
+  }
+}
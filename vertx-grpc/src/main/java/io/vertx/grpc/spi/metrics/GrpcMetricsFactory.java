@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2011-2023 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.grpc.spi.metrics;
+
+import io.vertx.core.net.SocketAddress;
+
+/**
+ * Implemented by a {@link io.vertx.core.spi.metrics.VertxMetrics} implementation to receive the metrics of the gRPC
+ * servers and channels, the servers built by {@link io.vertx.grpc.VertxServerBuilder} and the channels built by
+ * {@link io.vertx.grpc.VertxChannelBuilder} report to it automatically.
+ */
+public interface GrpcMetricsFactory {
+
+  /**
+   * Provides the metrics of a gRPC server.
+   *
+   * @param localAddress the local address the server binds to
+   * @return the server metrics or {@code null} to not record them
+   */
+  default GrpcServerMetrics<?> createGrpcServerMetrics(SocketAddress localAddress) {
+    return null;
+  }
+
+  /**
+   * Provides the metrics of a gRPC channel.
+   *
+   * @param target the target of the channel
+   * @return the client metrics or {@code null} to not record them
+   */
+  default GrpcClientMetrics<?> createGrpcClientMetrics(String target) {
+    return null;
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2011-2023 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.grpc.spi.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free latency histogram with exponential buckets: the bucket {@code i} counts the latencies between
+ * {@code 2^(i-1)} and {@code 2^i} microseconds. Recording is a single atomic increment and does not allocate.
+ */
+public class LatencyHistogram {
+
+  /**
+   * The number of buckets, the last bucket counts the latencies greater than {@code 2^(BUCKETS-2)} microseconds
+   * (about 9 minutes).
+   */
+  public static final int BUCKETS = 31;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+  /**
+   * Record a latency.
+   *
+   * @param latencyNanos the latency in nanoseconds
+   */
+  public void record(long latencyNanos) {
+    buckets.incrementAndGet(bucket(TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+  }
+
+  private static int bucket(long micros) {
+    if (micros <= 1L) {
+      return 0;
+    }
+    int index = 64 - Long.numberOfLeadingZeros(micros - 1);
+    return Math.min(index, BUCKETS - 1);
+  }
+
+  /**
+   * @param index the bucket index
+   * @return the number of latencies recorded in the bucket
+   */
+  public long count(int index) {
+    return buckets.get(index);
+  }
+
+  /**
+   * @param index the bucket index
+   * @return the upper bound of the bucket in microseconds, {@code Long.MAX_VALUE} for the last bucket
+   */
+  public static long upperBound(int index) {
+    return index == BUCKETS - 1 ? Long.MAX_VALUE : 1L << index;
+  }
+
+  /**
+   * @return the total number of recorded latencies
+   */
+  public long count() {
+    long count = 0L;
+    for (int i = 0;i < BUCKETS;i++) {
+      count += buckets.get(i);
+    }
+    return count;
+  }
+
+  /**
+   * Estimate a percentile of the recorded latencies, the estimate is the upper bound of the bucket containing the
+   * percentile.
+   *
+   * @param percentile the percentile between {@code 0} and {@code 100}
+   * @return the estimated latency in microseconds, {@code 0} when nothing has been recorded
+   */
+  public long percentile(double percentile) {
+    if (percentile < 0D || percentile > 100D) {
+      throw new IllegalArgumentException("Invalid percentile " + percentile);
+    }
+    long[] snapshot = new long[BUCKETS];
+    long total = 0L;
+    for (int i = 0;i < BUCKETS;i++) {
+      snapshot[i] = buckets.get(i);
+      total += snapshot[i];
+    }
+    if (total == 0L) {
+      return 0L;
+    }
+    long rank = Math.max(1L, (long) Math.ceil(total * percentile / 100D));
+    long cumulated = 0L;
+    for (int i = 0;i < BUCKETS;i++) {
+      cumulated += snapshot[i];
+      if (cumulated >= rank) {
+        return upperBound(i);
+      }
+    }
+    return upperBound(BUCKETS - 1);
+  }
+}
@@ -20,12 +20,20 @@ import io.grpc.StatusException;
 import io.grpc.StatusRuntimeException;
 import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
+import io.vertx.core.Vertx;
 import io.vertx.core.streams.ReadStream;
 import io.vertx.core.streams.WriteStream;
 
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * @author Rogelio Orts
@@ -90,6 +98,226 @@ public final class ServerCalls {
     return request;
   }
 
+  /**
+   * Like {@link #oneToOne(Object, StreamObserver, String, Function)} but runs the {@code delegate} on the
+   * {@code executor}, the response is written on the context of the call.
+   */
+  public static <I, O> void oneToOne(I request, StreamObserver<O> response, String compression, Executor executor, Function<I, Future<O>> delegate) {
+    if (executor == null) {
+      oneToOne(request, response, compression, delegate);
+      return;
+    }
+    trySetCompression(response, compression);
+    StreamObserver<O> observer = onContext(response);
+    execute(executor, observer, () -> oneToOne(request, observer, null, delegate));
+  }
+
+  /**
+   * Like {@link #oneToMany(Object, StreamObserver, String, BiConsumer)} but runs the {@code delegate} on the
+   * {@code executor}, the response is written on the context of the call.
+   */
+  public static <I, O> void oneToMany(I request, StreamObserver<O> response, String compression, Executor executor, BiConsumer<I, WriteStream<O>> delegate) {
+    if (executor == null) {
+      oneToMany(request, response, compression, delegate);
+      return;
+    }
+    trySetCompression(response, compression);
+    StreamObserver<O> observer = onContext(response);
+    execute(executor, observer, () -> oneToMany(request, observer, null, delegate));
+  }
+
+  /**
+   * Like {@link #manyToOne(StreamObserver, String, Function)} but runs the {@code delegate} and the request stream
+   * handlers on the {@code executor}, one at a time and in order, the response is written on the context of the call.
+   */
+  public static <I, O> StreamObserver<I> manyToOne(StreamObserver<O> response, String compression, Executor executor, Function<ReadStream<I>, Future<O>> delegate) {
+    if (executor == null) {
+      return manyToOne(response, compression, delegate);
+    }
+    trySetCompression(response, compression);
+    StreamObserver<O> observer = onContext(response);
+    return new SerialStreamObserver<>(executor, observer, () -> manyToOne(observer, null, delegate));
+  }
+
+  /**
+   * Like {@link #manyToMany(StreamObserver, String, BiConsumer)} but runs the {@code delegate} and the request stream
+   * handlers on the {@code executor}, one at a time and in order, the response is written on the context of the call.
+   */
+  public static <I, O> StreamObserver<I> manyToMany(StreamObserver<O> response, String compression, Executor executor, BiConsumer<ReadStream<I>, WriteStream<O>> delegate) {
+    if (executor == null) {
+      return manyToMany(response, compression, delegate);
+    }
+    trySetCompression(response, compression);
+    StreamObserver<O> observer = onContext(response);
+    return new SerialStreamObserver<>(executor, observer, () -> manyToMany(observer, null, delegate));
+  }
+
+  private static void execute(Executor executor, StreamObserver<?> response, Runnable task) {
+    try {
+      executor.execute(task);
+    } catch (RejectedExecutionException e) {
+      response.onError(Status.UNAVAILABLE.withCause(e).asException());
+    }
+  }
+
+  private static <O> StreamObserver<O> onContext(StreamObserver<O> response) {
+    Context context = Vertx.currentContext();
+    return context == null ? response : new ContextStreamObserver<>(context, response);
+  }
+
+  /**
+   * Writes to an observer on a context.
+   *
+   * <p>The writes of the executor threads block while the call is not ready or too many messages are waiting to be
+   * written on the context, so a fast producer cannot queue an unbounded number of messages. The writes happening on
+   * a Vert.x thread never block.
+   */
+  private static class ContextStreamObserver<T> implements StreamObserver<T> {
+
+    private static final int MAX_PENDING = 16;
+
+    private final Context context;
+    private final StreamObserver<T> delegate;
+    private final ServerCallStreamObserver<T> call;
+    private int pending;
+    private boolean cancelled;
+
+    ContextStreamObserver(Context context, StreamObserver<T> delegate) {
+      this.context = context;
+      this.delegate = delegate;
+      if (delegate instanceof ServerCallStreamObserver) {
+        // Called by the service method, where the call handlers can be set
+        call = (ServerCallStreamObserver<T>) delegate;
+        call.setOnReadyHandler(this::signal);
+        call.setOnCancelHandler(() -> {
+          synchronized (this) {
+            cancelled = true;
+          }
+          signal();
+        });
+      } else {
+        call = null;
+      }
+    }
+
+    private synchronized void signal() {
+      notifyAll();
+    }
+
+    private void awaitReady() {
+      synchronized (this) {
+        try {
+          while (!cancelled && (pending >= MAX_PENDING || (pending > 0 && !call.isReady()))) {
+            wait();
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw Status.CANCELLED.withCause(e).asRuntimeException();
+        }
+        pending++;
+      }
+    }
+
+    @Override
+    public void onNext(T value) {
+      if (call == null || Context.isOnVertxThread()) {
+        context.runOnContext(v -> delegate.onNext(value));
+        return;
+      }
+      awaitReady();
+      context.runOnContext(v -> {
+        try {
+          delegate.onNext(value);
+        } finally {
+          synchronized (this) {
+            pending--;
+            notifyAll();
+          }
+        }
+      });
+    }
+
+    @Override
+    public void onError(Throwable t) {
+      context.runOnContext(v -> delegate.onError(t));
+    }
+
+    @Override
+    public void onCompleted() {
+      context.runOnContext(v -> delegate.onCompleted());
+    }
+  }
+
+  /**
+   * Delivers the events of a request stream to the observer created by a delegate, one at a time and in order, on an
+   * executor.
+   */
+  private static class SerialStreamObserver<T> implements StreamObserver<T> {
+
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final Executor executor;
+    private final StreamObserver<?> response;
+    private StreamObserver<T> delegate;
+
+    SerialStreamObserver(Executor executor, StreamObserver<?> response, Supplier<StreamObserver<T>> delegateFactory) {
+      this.executor = executor;
+      this.response = response;
+      execute(() -> {
+        try {
+          delegate = delegateFactory.get();
+        } catch (Throwable t) {
+          response.onError(prepareError(t));
+        }
+      });
+    }
+
+    private void execute(Runnable task) {
+      tasks.add(task);
+      if (size.getAndIncrement() == 0) {
+        // No task is running, start draining the tasks
+        ServerCalls.execute(executor, response, this::drain);
+      }
+    }
+
+    private void drain() {
+      do {
+        try {
+          tasks.poll().run();
+        } catch (Throwable t) {
+          response.onError(prepareError(t));
+        }
+      } while (size.decrementAndGet() > 0);
+    }
+
+    @Override
+    public void onNext(T value) {
+      execute(() -> {
+        if (delegate != null) {
+          delegate.onNext(value);
+        }
+      });
+    }
+
+    @Override
+    public void onError(Throwable t) {
+      execute(() -> {
+        if (delegate != null) {
+          delegate.onError(t);
+        }
+      });
+    }
+
+    @Override
+    public void onCompleted() {
+      execute(() -> {
+        if (delegate != null) {
+          delegate.onCompleted();
+        }
+      });
+    }
+  }
+
   private static void trySetCompression(StreamObserver<?> response, String compression) {
     if (compression != null && response instanceof ServerCallStreamObserver<?>) {
       ServerCallStreamObserver<?> serverResponse = (ServerCallStreamObserver<?>) response;
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2011-2023 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.grpc.stub;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Provides an executor starting a virtual thread per task when the JVM supports virtual threads.
+ *
+ * <p>The executor is looked up reflectively so this library keeps running on JVMs without virtual threads.
+ */
+public final class VirtualThreads {
+
+  private static final Executor EXECUTOR = lookupExecutor();
+
+  private static Executor lookupExecutor() {
+    try {
+      Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (Executor) method.invoke(null);
+    } catch (Exception | LinkageError e) {
+      // Not supported by this JVM or preview features are not enabled
+      return null;
+    }
+  }
+
+  private VirtualThreads() {
+  }
+
+  /**
+   * @return whether the JVM supports virtual threads
+   */
+  public static boolean isAvailable() {
+    return EXECUTOR != null;
+  }
+
+  /**
+   * @return an executor running each task on a new virtual thread
+   * @throws UnsupportedOperationException when the JVM does not support virtual threads
+   */
+  public static Executor executor() {
+    if (EXECUTOR == null) {
+      throw new UnsupportedOperationException("Virtual threads are not supported by this JVM");
+    }
+    return EXECUTOR;
+  }
+}
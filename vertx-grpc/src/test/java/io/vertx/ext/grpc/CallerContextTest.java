@@ -0,0 +1,83 @@
+package io.vertx.ext.grpc;
+
+import io.grpc.ManagedChannel;
+import io.grpc.examples.helloworld.GreeterGrpc;
+import io.grpc.examples.helloworld.HelloReply;
+import io.grpc.examples.helloworld.HelloRequest;
+import io.grpc.examples.helloworld.VertxGreeterGrpc;
+import io.grpc.stub.StreamObserver;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.grpc.VertxChannelBuilder;
+import org.junit.Test;
+
+public class CallerContextTest extends GrpcTestBase {
+
+  private volatile Vertx clientVertx;
+  private volatile ManagedChannel channel;
+
+  @Override
+  public void tearDown(TestContext should) {
+    if (channel != null) {
+      channel.shutdown();
+    }
+    if (clientVertx != null) {
+      clientVertx.close(should.asyncAssertSuccess());
+    }
+    super.tearDown(should);
+  }
+
+  private void testCallerContext(TestContext should, int poolSize) {
+    Async test = should.async();
+    clientVertx = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(2));
+    Context builderContext = ((VertxInternal) clientVertx).createEventLoopContext();
+    Context callerContext = ((VertxInternal) clientVertx).createEventLoopContext();
+    startServer(new VertxGreeterGrpc.GreeterVertxImplBase() {
+      @Override
+      public Future<HelloReply> sayHello(HelloRequest request) {
+        return Future.succeededFuture(HelloReply.newBuilder().setMessage("Hello " + request.getName()).build());
+      }
+    }).onComplete(should.asyncAssertSuccess(v -> {
+      builderContext.runOnContext(v1 -> {
+        channel = VertxChannelBuilder.forAddress(clientVertx, "localhost", port)
+          .usePlaintext()
+          .poolSize(poolSize)
+          .build();
+        callerContext.runOnContext(v2 -> {
+          Thread callerThread = Thread.currentThread();
+          GreeterGrpc.newStub(channel).sayHello(HelloRequest.newBuilder().setName("Julien").build(), new StreamObserver<HelloReply>() {
+            @Override
+            public void onNext(HelloReply reply) {
+              should.assertEquals(callerContext, Vertx.currentContext());
+              should.assertEquals(callerThread, Thread.currentThread());
+            }
+            @Override
+            public void onError(Throwable t) {
+              should.fail(t);
+            }
+            @Override
+            public void onCompleted() {
+              should.assertEquals(callerContext, Vertx.currentContext());
+              test.complete();
+            }
+          });
+        });
+      });
+    }));
+  }
+
+  @Test(timeout = 10_000L)
+  public void testCallerContext(TestContext should) {
+    testCallerContext(should, 1);
+  }
+
+  @Test(timeout = 10_000L)
+  public void testCallerContextWithPool(TestContext should) {
+    testCallerContext(should, 2);
+  }
+}
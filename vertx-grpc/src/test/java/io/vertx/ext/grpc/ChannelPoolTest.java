@@ -0,0 +1,110 @@
+package io.vertx.ext.grpc;
+
+import io.grpc.ConnectivityState;
+import io.grpc.ManagedChannel;
+import io.grpc.examples.helloworld.HelloReply;
+import io.grpc.examples.helloworld.HelloRequest;
+import io.grpc.examples.helloworld.VertxGreeterGrpc;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.grpc.VertxChannelBuilder;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ChannelPoolTest extends GrpcTestBase {
+
+  private volatile Vertx clientVertx;
+  private volatile ManagedChannel channel;
+
+  @Override
+  public void tearDown(TestContext should) {
+    if (channel != null) {
+      channel.shutdown();
+    }
+    if (clientVertx != null) {
+      clientVertx.close(should.asyncAssertSuccess());
+    }
+    super.tearDown(should);
+  }
+
+  @Test(timeout = 10_000L)
+  public void testPool(TestContext should) {
+    int poolSize = 4;
+    Async test = should.async();
+    clientVertx = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(poolSize));
+    startServer(new VertxGreeterGrpc.GreeterVertxImplBase() {
+      @Override
+      public Future<HelloReply> sayHello(HelloRequest request) {
+        return Future.succeededFuture(HelloReply.newBuilder().setMessage("Hello " + request.getName()).build());
+      }
+    }).onComplete(should.asyncAssertSuccess(v -> {
+      channel = VertxChannelBuilder.forAddress(clientVertx, "localhost", port)
+        .usePlaintext()
+        .poolSize(poolSize)
+        .build();
+      VertxGreeterGrpc.GreeterVertxStub stub = VertxGreeterGrpc.newVertxStub(channel);
+      AtomicInteger replies = new AtomicInteger();
+      for (int i = 0; i < poolSize; i++) {
+        stub.sayHello(HelloRequest.newBuilder().setName("Julien").build()).onComplete(should.asyncAssertSuccess(reply -> {
+          should.assertEquals("Hello Julien", reply.getMessage());
+          if (replies.incrementAndGet() == poolSize) {
+            // Each call used the channel of another event loop
+            server.flowControlWindows().onComplete(should.asyncAssertSuccess(windows -> {
+              should.assertEquals(poolSize, windows.size());
+              test.complete();
+            }));
+          }
+        }));
+      }
+    }));
+  }
+
+  @Test(timeout = 10_000L)
+  public void testPoolLimitedToEventLoops(TestContext should) {
+    Async test = should.async();
+    startServer(new VertxGreeterGrpc.GreeterVertxImplBase() {
+      @Override
+      public Future<HelloReply> sayHello(HelloRequest request) {
+        return Future.succeededFuture(HelloReply.newBuilder().setMessage("Hello " + request.getName()).build());
+      }
+    }).onComplete(should.asyncAssertSuccess(v -> {
+      // The test Vert.x instance has a single event loop
+      channel = VertxChannelBuilder.forAddress(vertx, "localhost", port)
+        .usePlaintext()
+        .poolSize(4)
+        .build();
+      VertxGreeterGrpc.GreeterVertxStub stub = VertxGreeterGrpc.newVertxStub(channel);
+      stub.sayHello(HelloRequest.newBuilder().setName("Julien").build()).onComplete(should.asyncAssertSuccess(reply -> {
+        server.flowControlWindows().onComplete(should.asyncAssertSuccess(windows -> {
+          should.assertEquals(1, windows.size());
+          test.complete();
+        }));
+      }));
+    }));
+  }
+
+  @Test(timeout = 10_000L)
+  public void testNotifyWhenStateChanged(TestContext should) {
+    int poolSize = 2;
+    Async test = should.async();
+    clientVertx = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(poolSize));
+    startServer(new VertxGreeterGrpc.GreeterVertxImplBase() {
+    }).onComplete(should.asyncAssertSuccess(v -> {
+      channel = VertxChannelBuilder.forAddress(clientVertx, "localhost", port)
+        .usePlaintext()
+        .poolSize(poolSize)
+        .build();
+      should.assertEquals(ConnectivityState.IDLE, channel.getState(false));
+      channel.notifyWhenStateChanged(ConnectivityState.IDLE, () -> {
+        should.assertNotEquals(ConnectivityState.IDLE, channel.getState(false));
+        test.complete();
+      });
+      // Connect the channels
+      channel.getState(true);
+    }));
+  }
+}
@@ -0,0 +1,102 @@
+package io.vertx.ext.grpc;
+
+import io.grpc.ManagedChannel;
+import io.grpc.examples.helloworld.GreeterGrpc;
+import io.grpc.examples.helloworld.HelloReply;
+import io.grpc.examples.helloworld.HelloRequest;
+import io.grpc.examples.helloworld.VertxGreeterGrpc;
+import io.grpc.examples.streaming.Empty;
+import io.grpc.examples.streaming.Item;
+import io.grpc.examples.streaming.VertxStreamingGrpc;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.ext.grpc.utils.IterableReadStream;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.grpc.CompressionPolicy;
+import io.vertx.grpc.VertxChannelBuilder;
+import io.vertx.grpc.VertxServerBuilder;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CompressionPolicyTest extends GrpcTestBase {
+
+  private volatile ManagedChannel channel;
+
+  @Override
+  public void tearDown(TestContext should) {
+    if (channel != null) {
+      channel.shutdown();
+    }
+    super.tearDown(should);
+  }
+
+  private static String value(int size) {
+    char[] chars = new char[size];
+    Arrays.fill(chars, 'x');
+    return new String(chars);
+  }
+
+  @Test(timeout = 10_000L)
+  public void testMinSize(TestContext should) {
+    Async test = should.async();
+    CompressionPolicy policy = CompressionPolicy.create()
+      .setEncoding("gzip")
+      .setMinSize(1024);
+    VertxServerBuilder builder = VertxServerBuilder.forPort(vertx, port).compressionPolicy(policy);
+    startServer(new VertxStreamingGrpc.StreamingVertxImplBase() {
+      @Override
+      public void source(Empty request, WriteStream<Item> response) {
+        // Alternate small and large items
+        new IterableReadStream<>(cnt -> Item.newBuilder().setValue(value(cnt % 2 == 0 ? 16 : 4096)).build(), 10).pipeTo(response);
+      }
+    }, builder).onComplete(should.asyncAssertSuccess(v -> {
+      channel = VertxChannelBuilder.forAddress(vertx, "localhost", port)
+        .usePlaintext()
+        .build();
+      AtomicInteger count = new AtomicInteger();
+      VertxStreamingGrpc.newVertxStub(channel)
+        .source(Empty.getDefaultInstance())
+        .handler(item -> count.incrementAndGet())
+        .exceptionHandler(should::fail)
+        .endHandler(v1 -> {
+          should.assertEquals(10, count.get());
+          should.assertEquals(5L, policy.compressed());
+          should.assertEquals(5L, policy.skippedSize());
+          should.assertEquals(0L, policy.skippedBusy());
+          test.complete();
+        });
+    }));
+  }
+
+  @Test(timeout = 10_000L)
+  public void testServiceDisablesCompression(TestContext should) {
+    CompressionPolicy policy = CompressionPolicy.create()
+      .setEncoding("gzip")
+      .setMinSize(0);
+    VertxServerBuilder builder = VertxServerBuilder.forPort(vertx, port).compressionPolicy(policy);
+    startServer(new GreeterGrpc.GreeterImplBase() {
+      @Override
+      public void sayHello(HelloRequest request, StreamObserver<HelloReply> responseObserver) {
+        ((ServerCallStreamObserver<HelloReply>) responseObserver).setMessageCompression(false);
+        responseObserver.onNext(HelloReply.newBuilder().setMessage(value(4096)).build());
+        responseObserver.onCompleted();
+      }
+    }, builder).onComplete(should.asyncAssertSuccess(v -> {
+      channel = VertxChannelBuilder.forAddress(vertx, "localhost", port)
+        .usePlaintext()
+        .build();
+      VertxGreeterGrpc.newVertxStub(channel)
+        .sayHello(HelloRequest.getDefaultInstance())
+        .onComplete(should.asyncAssertSuccess(reply -> {
+          should.assertEquals(4096, reply.getMessage().length());
+          // The policy is not asked to compress a message the service sends uncompressed
+          should.assertEquals(0L, policy.compressed());
+          should.assertEquals(0L, policy.skippedSize());
+        }));
+    }));
+  }
+}
@@ -0,0 +1,137 @@
+package io.vertx.ext.grpc;
+
+import com.google.protobuf.ByteString;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.Codec;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
+import io.grpc.examples.helloworld.HelloReply;
+import io.grpc.examples.helloworld.HelloRequest;
+import io.grpc.examples.helloworld.VertxGreeterGrpc;
+import io.grpc.testing.integration.Messages;
+import io.vertx.core.Future;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.grpc.Lz4Codec;
+import io.vertx.grpc.VertxChannelBuilder;
+import io.vertx.grpc.ZstdCodec;
+import net.jpountz.lz4.LZ4FrameOutputStream;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class CompressionTest extends GrpcTestBase {
+
+  private static final Metadata.Key<String> ENCODING = Metadata.Key.of("grpc-encoding", Metadata.ASCII_STRING_MARSHALLER);
+
+  private volatile ManagedChannel channel;
+
+  @Override
+  public void tearDown(TestContext should) {
+    if (channel != null) {
+      channel.shutdown();
+    }
+    super.tearDown(should);
+  }
+
+  private void testCompression(TestContext should, String encoding) {
+    AtomicReference<String> requestEncoding = new AtomicReference<>();
+    AtomicReference<String> responseEncoding = new AtomicReference<>();
+    VertxGreeterGrpc.GreeterVertxImplBase service = new VertxGreeterGrpc.GreeterVertxImplBase() {
+      @Override
+      public Future<HelloReply> sayHello(HelloRequest request) {
+        return Future.succeededFuture(HelloReply.newBuilder().setMessage("Hello " + request.getName()).build());
+      }
+    }.withCompression(encoding);
+    ServerInterceptor serverInterceptor = new ServerInterceptor() {
+      @Override
+      public <Q, A> ServerCall.Listener<Q> interceptCall(ServerCall<Q, A> call, Metadata headers, ServerCallHandler<Q, A> next) {
+        requestEncoding.set(headers.get(ENCODING));
+        return next.startCall(call, headers);
+      }
+    };
+    ClientInterceptor clientInterceptor = new ClientInterceptor() {
+      @Override
+      public <Q, A> ClientCall<Q, A> interceptCall(MethodDescriptor<Q, A> method, CallOptions callOptions, Channel next) {
+        return new ForwardingClientCall.SimpleForwardingClientCall<Q, A>(next.newCall(method, callOptions)) {
+          @Override
+          public void start(Listener<A> responseListener, Metadata headers) {
+            super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<A>(responseListener) {
+              @Override
+              public void onHeaders(Metadata headers) {
+                responseEncoding.set(headers.get(ENCODING));
+                super.onHeaders(headers);
+              }
+            }, headers);
+          }
+        };
+      }
+    };
+    startServer(ServerInterceptors.intercept(service, serverInterceptor)).onComplete(should.asyncAssertSuccess(v -> {
+      channel = VertxChannelBuilder.forAddress(vertx, "localhost", port)
+        .usePlaintext()
+        .build();
+      VertxGreeterGrpc.newVertxStub(channel)
+        .withInterceptors(clientInterceptor)
+        .withCompression(encoding)
+        .sayHello(HelloRequest.newBuilder().setName("Julien").build())
+        .onComplete(should.asyncAssertSuccess(reply -> {
+          should.assertEquals("Hello Julien", reply.getMessage());
+          should.assertEquals(encoding, requestEncoding.get());
+          should.assertEquals(encoding, responseEncoding.get());
+        }));
+    }));
+  }
+
+  @Test(timeout = 10_000L)
+  public void testZstd(TestContext should) {
+    testCompression(should, "zstd");
+  }
+
+  @Test(timeout = 10_000L)
+  public void testLz4(TestContext should) {
+    testCompression(should, "lz4");
+  }
+
+  @Test
+  public void testCompressionRatio(TestContext should) throws Exception {
+    byte[] body = new byte[64 * 1024];
+    for (int i = 0; i < body.length; i++) {
+      body[i] = (byte) ('a' + (i % 17) * (i % 5));
+    }
+    Messages.SimpleRequest request = Messages.SimpleRequest.newBuilder()
+      .setResponseSize(body.length)
+      .setPayload(Messages.Payload.newBuilder().setBody(ByteString.copyFrom(body)))
+      .build();
+    byte[] raw = request.toByteArray();
+    for (Codec codec : new Codec[] { new Codec.Gzip(), new ZstdCodec(), new Lz4Codec(), new Lz4Codec(LZ4FrameOutputStream.BLOCKSIZE.SIZE_4MB) }) {
+      ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+      try (OutputStream out = codec.compress(buffer)) {
+        out.write(raw);
+      }
+      should.assertTrue(buffer.size() < raw.length / 4, codec.getMessageEncoding() + " compressed " + raw.length + " bytes to " + buffer.size());
+      ByteArrayOutputStream decompressed = new ByteArrayOutputStream();
+      try (InputStream in = codec.decompress(new ByteArrayInputStream(buffer.toByteArray()))) {
+        byte[] chunk = new byte[1024];
+        int amount;
+        while ((amount = in.read(chunk)) != -1) {
+          decompressed.write(chunk, 0, amount);
+        }
+      }
+      should.assertEquals(request, Messages.SimpleRequest.parseFrom(decompressed.toByteArray()));
+    }
+  }
+}
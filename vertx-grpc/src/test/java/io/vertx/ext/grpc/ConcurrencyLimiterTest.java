@@ -0,0 +1,129 @@
+package io.vertx.ext.grpc;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Status;
+import io.grpc.examples.helloworld.HelloReply;
+import io.grpc.examples.helloworld.HelloRequest;
+import io.grpc.examples.helloworld.VertxGreeterGrpc;
+import io.grpc.examples.streaming.Empty;
+import io.grpc.examples.streaming.Item;
+import io.grpc.examples.streaming.VertxStreamingGrpc;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.grpc.AdaptiveConcurrencyLimiter;
+import io.vertx.grpc.VertxChannelBuilder;
+import io.vertx.grpc.VertxServerBuilder;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConcurrencyLimiterTest extends GrpcTestBase {
+
+  private volatile ManagedChannel channel;
+
+  @Override
+  public void tearDown(TestContext should) {
+    if (channel != null) {
+      channel.shutdown();
+    }
+    super.tearDown(should);
+  }
+
+  @Test(timeout = 10_000L)
+  public void testRejectOverLimit(TestContext should) {
+    Async test = should.async(2);
+    AtomicInteger count = new AtomicInteger();
+    AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.create()
+      .setInitialLimit(1)
+      .setMaxLimit(1);
+    startServer(new VertxGreeterGrpc.GreeterVertxImplBase() {
+      @Override
+      public Future<HelloReply> sayHello(HelloRequest request) {
+        should.assertEquals(1, count.incrementAndGet());
+        Promise<HelloReply> promise = Promise.promise();
+        VertxGreeterGrpc.GreeterVertxStub stub = VertxGreeterGrpc.newVertxStub(channel);
+        stub.sayHello(HelloRequest.newBuilder().setName("Paulo").build()).onComplete(should.asyncAssertFailure(err -> {
+          should.assertEquals(Status.Code.RESOURCE_EXHAUSTED, Status.fromThrowable(err).getCode());
+          promise.complete(HelloReply.newBuilder().setMessage("Hello " + request.getName()).build());
+          test.countDown();
+        }));
+        return promise.future();
+      }
+    }, VertxServerBuilder.forPort(vertx, port).concurrencyLimiter(limiter))
+      .onFailure(should::fail)
+      .onSuccess(v -> {
+        channel = VertxChannelBuilder.forAddress(vertx, "localhost", port)
+          .usePlaintext()
+          .build();
+        VertxGreeterGrpc.GreeterVertxStub stub = VertxGreeterGrpc.newVertxStub(channel);
+        stub.sayHello(HelloRequest.newBuilder().setName("Julien").build()).onComplete(should.asyncAssertSuccess(res -> {
+          should.assertEquals("Hello Julien", res.getMessage());
+          test.countDown();
+        }));
+      });
+  }
+
+  @Test(timeout = 10_000L)
+  public void testReleaseOnCompletion(TestContext should) {
+    Async test = should.async();
+    AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.create()
+      .setInitialLimit(1)
+      .setMaxLimit(1);
+    startServer(new VertxGreeterGrpc.GreeterVertxImplBase() {
+      @Override
+      public Future<HelloReply> sayHello(HelloRequest request) {
+        return Future.succeededFuture(HelloReply.newBuilder().setMessage("Hello " + request.getName()).build());
+      }
+    }, VertxServerBuilder.forPort(vertx, port).concurrencyLimiter(limiter))
+      .onFailure(should::fail)
+      .onSuccess(v -> {
+        channel = VertxChannelBuilder.forAddress(vertx, "localhost", port)
+          .usePlaintext()
+          .build();
+        VertxGreeterGrpc.GreeterVertxStub stub = VertxGreeterGrpc.newVertxStub(channel);
+        Future<HelloReply> fut = stub.sayHello(HelloRequest.newBuilder().setName("Julien").build());
+        for (int i = 0; i < 10; i++) {
+          fut = fut.compose(res -> stub.sayHello(HelloRequest.newBuilder().setName("Julien").build()));
+        }
+        fut.onComplete(should.asyncAssertSuccess(res -> test.complete()));
+      });
+  }
+
+  @Test(timeout = 10_000L)
+  public void testStreamsNotLimited(TestContext should) {
+    int streams = 3;
+    Async test = should.async(streams);
+    List<WriteStream<Item>> responses = new ArrayList<>();
+    AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.create()
+      .setInitialLimit(1)
+      .setMaxLimit(1);
+    startServer(new VertxStreamingGrpc.StreamingVertxImplBase() {
+      @Override
+      public void source(Empty request, WriteStream<Item> response) {
+        // Keep the streams open until they are all open
+        responses.add(response);
+        if (responses.size() == streams) {
+          responses.forEach(WriteStream::end);
+        }
+      }
+    }, VertxServerBuilder.forPort(vertx, port).concurrencyLimiter(limiter))
+      .onFailure(should::fail)
+      .onSuccess(v -> {
+        channel = VertxChannelBuilder.forAddress(vertx, "localhost", port)
+          .usePlaintext()
+          .build();
+        VertxStreamingGrpc.StreamingVertxStub stub = VertxStreamingGrpc.newVertxStub(channel);
+        for (int i = 0; i < streams; i++) {
+          stub.source(Empty.getDefaultInstance())
+            .exceptionHandler(should::fail)
+            .handler(item -> {})
+            .endHandler(v2 -> test.countDown());
+        }
+      });
+  }
+}
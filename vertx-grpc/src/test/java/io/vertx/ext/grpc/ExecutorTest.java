@@ -0,0 +1,172 @@
+package io.vertx.ext.grpc;
+
+import io.grpc.ManagedChannel;
+import io.grpc.examples.helloworld.HelloReply;
+import io.grpc.examples.helloworld.HelloRequest;
+import io.grpc.examples.helloworld.VertxGreeterGrpc;
+import io.grpc.examples.streaming.Empty;
+import io.grpc.examples.streaming.Item;
+import io.grpc.examples.streaming.VertxStreamingGrpc;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.grpc.VertxChannelBuilder;
+import io.vertx.grpc.stub.VirtualThreads;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class ExecutorTest extends GrpcTestBase {
+
+  private volatile ManagedChannel channel;
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  @Override
+  public void tearDown(TestContext should) {
+    if (channel != null) {
+      channel.shutdown();
+    }
+    executor.shutdown();
+    super.tearDown(should);
+  }
+
+  private void testUnary(TestContext should, VertxGreeterGrpc.GreeterVertxImplBase service) {
+    Async test = should.async();
+    startServer(service)
+      .onFailure(should::fail)
+      .onSuccess(v -> {
+        Context ctx = vertx.getOrCreateContext();
+        channel = VertxChannelBuilder.forAddress(vertx, "localhost", port)
+          .usePlaintext()
+          .build();
+        VertxGreeterGrpc.GreeterVertxStub stub = VertxGreeterGrpc.newVertxStub(channel);
+        stub.sayHello(HelloRequest.newBuilder().setName("Julien").build()).onComplete(should.asyncAssertSuccess(res -> {
+          should.assertEquals(ctx, Vertx.currentContext());
+          should.assertEquals("Hello Julien", res.getMessage());
+          test.complete();
+        }));
+      });
+  }
+
+  private VertxGreeterGrpc.GreeterVertxImplBase blockingGreeter(TestContext should) {
+    return new VertxGreeterGrpc.GreeterVertxImplBase() {
+      @Override
+      public Future<HelloReply> sayHello(HelloRequest request) {
+        should.assertFalse(Context.isOnEventLoopThread());
+        try {
+          // Block the thread
+          Thread.sleep(100);
+        } catch (InterruptedException e) {
+          return Future.failedFuture(e);
+        }
+        return Future.succeededFuture(HelloReply.newBuilder().setMessage("Hello " + request.getName()).build());
+      }
+    };
+  }
+
+  @Test(timeout = 10_000L)
+  public void testServiceExecutor(TestContext should) {
+    testUnary(should, blockingGreeter(should).withExecutor(executor));
+  }
+
+  @Test(timeout = 10_000L)
+  public void testMethodExecutor(TestContext should) {
+    testUnary(should, blockingGreeter(should).withExecutor("sayHello", executor));
+  }
+
+  @Test
+  public void testUnknownMethodExecutor(TestContext should) {
+    try {
+      blockingGreeter(should).withExecutor("sayHi", executor);
+      should.fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  @Test(timeout = 10_000L)
+  public void testStreamingOutput(TestContext should) {
+    int numItems = 1024;
+    Async test = should.async();
+    startServer(new VertxStreamingGrpc.StreamingVertxImplBase() {
+      @Override
+      public void source(Empty request, WriteStream<Item> response) {
+        should.assertFalse(Context.isOnEventLoopThread());
+        // Writes faster than the transport, the executor thread waits for the call to be ready
+        for (int i = 0;i < numItems;i++) {
+          response.write(Item.newBuilder().setValue("the-value-" + i).build());
+        }
+        response.end();
+      }
+    }.withExecutor(executor))
+      .onFailure(should::fail)
+      .onSuccess(v -> {
+        channel = VertxChannelBuilder.forAddress(vertx, "localhost", port)
+          .usePlaintext()
+          .build();
+        VertxStreamingGrpc.StreamingVertxStub stub = VertxStreamingGrpc.newVertxStub(channel);
+        List<String> items = new ArrayList<>();
+        stub.source(Empty.getDefaultInstance())
+          .endHandler(v1 -> {
+            List<String> expected = IntStream.range(0, numItems).mapToObj(val -> "the-value-" + val).collect(Collectors.toList());
+            should.assertEquals(expected, items);
+            test.complete();
+          })
+          .exceptionHandler(should::fail)
+          .handler(item -> items.add(item.getValue()));
+      });
+  }
+
+  @Test(timeout = 10_000L)
+  public void testVirtualThreads(TestContext should) {
+    Assume.assumeTrue(VirtualThreads.isAvailable());
+    testUnary(should, blockingGreeter(should).withVirtualThreads());
+  }
+
+  @Test(timeout = 10_000L)
+  public void testStreamingInput(TestContext should) {
+    Async test = should.async();
+    int numItems = 64;
+    startServer(new VertxStreamingGrpc.StreamingVertxImplBase() {
+      @Override
+      public Future<Empty> sink(ReadStream<Item> request) {
+        List<String> items = new ArrayList<>();
+        Promise<Empty> promise = Promise.promise();
+        request
+          .handler(item -> {
+            should.assertFalse(Context.isOnEventLoopThread());
+            items.add(item.getValue());
+          })
+          .endHandler(v -> {
+            List<String> expected = IntStream.range(0, numItems).mapToObj(val -> "the-value-" + val).collect(Collectors.toList());
+            should.assertEquals(expected, items);
+            promise.complete(Empty.getDefaultInstance());
+          });
+        return promise.future();
+      }
+    }.withExecutor(executor))
+      .onFailure(should::fail)
+      .onSuccess(v -> {
+        channel = VertxChannelBuilder.forAddress(vertx, "localhost", port)
+          .usePlaintext()
+          .build();
+        VertxStreamingGrpc.StreamingVertxStub stub = VertxStreamingGrpc.newVertxStub(channel);
+        stub.sink(exchange -> {
+          for (int i = 0;i < numItems;i++) {
+            exchange.write(Item.newBuilder().setValue("the-value-" + i).build());
+          }
+          exchange.end();
+        }).onComplete(should.asyncAssertSuccess(res -> test.complete()));
+      });
+  }
+}
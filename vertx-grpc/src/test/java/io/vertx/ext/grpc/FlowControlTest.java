@@ -0,0 +1,65 @@
+package io.vertx.ext.grpc;
+
+import io.grpc.ManagedChannel;
+import io.grpc.examples.helloworld.HelloReply;
+import io.grpc.examples.helloworld.HelloRequest;
+import io.grpc.examples.helloworld.VertxGreeterGrpc;
+import io.vertx.core.Future;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.grpc.FlowControlWindow;
+import io.vertx.grpc.VertxChannelBuilder;
+import io.vertx.grpc.VertxServerBuilder;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+
+public class FlowControlTest extends GrpcTestBase {
+
+  private volatile ManagedChannel channel;
+
+  @Override
+  public void tearDown(TestContext should) {
+    if (channel != null) {
+      channel.shutdown();
+    }
+    super.tearDown(should);
+  }
+
+  private void testWindows(TestContext should, VertxServerBuilder serverBuilder, VertxChannelBuilder channelBuilder) {
+    startServer(new VertxGreeterGrpc.GreeterVertxImplBase() {
+      @Override
+      public Future<HelloReply> sayHello(HelloRequest request) {
+        return Future.succeededFuture(HelloReply.newBuilder().setMessage("Hello " + request.getName()).build());
+      }
+    }, serverBuilder).onComplete(should.asyncAssertSuccess(v1 -> {
+      server.flowControlWindows().onComplete(should.asyncAssertSuccess(windows -> {
+        should.assertEquals(0, windows.size());
+        channel = channelBuilder.usePlaintext().build();
+        VertxGreeterGrpc.GreeterVertxStub stub = VertxGreeterGrpc.newVertxStub(channel);
+        stub.sayHello(HelloRequest.newBuilder().setName("Julien").build()).onComplete(should.asyncAssertSuccess(reply -> {
+          server.flowControlWindows().onComplete(should.asyncAssertSuccess(list -> {
+            should.assertEquals(1, list.size());
+            FlowControlWindow window = list.get(0);
+            should.assertTrue(window.remoteAddress() instanceof InetSocketAddress);
+            should.assertTrue(window.localWindow() > 0);
+            should.assertTrue(window.remoteWindow() > 0);
+          }));
+        }));
+      }));
+    }));
+  }
+
+  @Test(timeout = 10_000L)
+  public void testAutomaticWindow(TestContext should) {
+    testWindows(should,
+      VertxServerBuilder.forPort(vertx, port).initialFlowControlWindow(64 * 1024),
+      VertxChannelBuilder.forAddress(vertx, "localhost", port).initialFlowControlWindow(64 * 1024));
+  }
+
+  @Test(timeout = 10_000L)
+  public void testFixedWindow(TestContext should) {
+    testWindows(should,
+      VertxServerBuilder.forPort(vertx, port).flowControlWindow(4 * 1024 * 1024),
+      VertxChannelBuilder.forAddress(vertx, "localhost", port).flowControlWindow(4 * 1024 * 1024));
+  }
+}
@@ -37,9 +37,8 @@ public abstract class GrpcTestBase {
 
   @After
   public void tearDown(TestContext should) {
-    final Async test = should.async();
-
     if (server != null) {
+      final Async test = should.async();
       VertxServer s = server;
       server = null;
       final long timerId = rule.vertx().setTimer(10_000L, t -> should.fail("Timeout shutting down"));
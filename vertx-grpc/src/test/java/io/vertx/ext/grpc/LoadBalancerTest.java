@@ -0,0 +1,243 @@
+package io.vertx.ext.grpc;
+
+import io.grpc.BindableService;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.examples.helloworld.HelloReply;
+import io.grpc.examples.helloworld.HelloRequest;
+import io.grpc.examples.helloworld.VertxGreeterGrpc;
+import io.grpc.stub.MetadataUtils;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.ext.grpc.utils.FakeDnsServer;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.grpc.ConsistentHashLoadBalancerProvider;
+import io.vertx.grpc.LeastRequestLoadBalancerProvider;
+import io.vertx.grpc.VertxChannelBuilder;
+import io.vertx.grpc.VertxServer;
+import io.vertx.grpc.VertxServerBuilder;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LoadBalancerTest extends GrpcTestBase {
+
+  private static final int DNS_PORT = 53530;
+  private static final String TARGET = "vertx-dns://127.0.0.1:" + DNS_PORT + "/_grpc._tcp.test.vertx.io";
+
+  private FakeDnsServer dns;
+  private volatile VertxServer other;
+  private volatile ManagedChannel channel;
+
+  @Override
+  public void setUp() {
+    super.setUp();
+    dns = new FakeDnsServer()
+      .address("test.vertx.io", "127.0.0.1")
+      .srv("_grpc._tcp.test.vertx.io", 0, 0, port, "test.vertx.io")
+      .srv("_grpc._tcp.test.vertx.io", 0, 0, port + 1, "test.vertx.io");
+  }
+
+  @Override
+  public void tearDown(TestContext should) {
+    if (channel != null) {
+      channel.shutdown();
+    }
+    if (other != null) {
+      other.shutdown(should.asyncAssertSuccess());
+    }
+    dns.stop();
+    super.tearDown(should);
+  }
+
+  private BindableService backend(String name, long delay) {
+    return new VertxGreeterGrpc.GreeterVertxImplBase() {
+      @Override
+      public Future<HelloReply> sayHello(HelloRequest request) {
+        HelloReply reply = HelloReply.newBuilder().setMessage(name).build();
+        if (delay == 0L) {
+          return Future.succeededFuture(reply);
+        }
+        Promise<HelloReply> promise = Promise.promise();
+        vertx.setTimer(delay, id -> promise.complete(reply));
+        return promise.future();
+      }
+    };
+  }
+
+  /**
+   * Start a backend replying after {@code slowDelay} on {@code port} and a fast backend on {@code port + 1}, replying
+   * with their name.
+   */
+  private Future<Void> startBackends(long slowDelay) {
+    return dns.start(vertx, DNS_PORT)
+      .compose(v -> startServer(backend("slow", slowDelay)))
+      .compose(v -> {
+        Promise<Void> promise = Promise.promise();
+        other = VertxServerBuilder.forPort(vertx, port + 1)
+          .addService(backend("fast", 0L))
+          .build()
+          .start(promise);
+        return promise.future();
+      });
+  }
+
+  /**
+   * Send {@code count} sequential calls with each of the {@code concurrency} senders and count the replies of each
+   * backend.
+   */
+  private Future<Map<String, Integer>> send(TestContext should, VertxGreeterGrpc.GreeterVertxStub stub, int concurrency, int count) {
+    Map<String, Integer> replies = new ConcurrentHashMap<>();
+    Promise<Map<String, Integer>> promise = Promise.promise();
+    AtomicInteger senders = new AtomicInteger(concurrency);
+    for (int i = 0;i < concurrency;i++) {
+      send(should, stub, count, replies, () -> {
+        if (senders.decrementAndGet() == 0) {
+          promise.complete(replies);
+        }
+      });
+    }
+    return promise.future();
+  }
+
+  private void send(TestContext should, VertxGreeterGrpc.GreeterVertxStub stub, int remaining, Map<String, Integer> replies, Runnable done) {
+    if (remaining == 0) {
+      done.run();
+      return;
+    }
+    stub.sayHello(HelloRequest.newBuilder().setName("Julien").build()).onComplete(should.asyncAssertSuccess(reply -> {
+      replies.merge(reply.getMessage(), 1, Integer::sum);
+      send(should, stub, remaining - 1, replies, done);
+    }));
+  }
+
+  @Test(timeout = 10_000L)
+  public void testLeastRequest(TestContext should) {
+    startBackends(100L)
+      .compose(v -> {
+        channel = VertxChannelBuilder.forTarget(vertx, TARGET)
+          .defaultLoadBalancingPolicy(LeastRequestLoadBalancerProvider.POLICY_NAME)
+          .usePlaintext()
+          .build();
+        return send(should, VertxGreeterGrpc.newVertxStub(channel), 4, 10);
+      })
+      .onComplete(should.asyncAssertSuccess(replies -> {
+        // The calls of the slow backend stay outstanding, so the next calls go to the fast backend
+        int fast = replies.getOrDefault("fast", 0);
+        int slow = replies.getOrDefault("slow", 0);
+        should.assertEquals(40, fast + slow);
+        should.assertTrue(fast > 3 * slow, "Expected the fast backend to receive most calls: " + replies);
+      }));
+  }
+
+  private Future<String> call(VertxGreeterGrpc.GreeterVertxStub stub) {
+    return stub.sayHello(HelloRequest.newBuilder().setName("Julien").build()).map(HelloReply::getMessage);
+  }
+
+  /**
+   * Send calls until both backends replied, so the ring contains both backends.
+   */
+  private Future<Void> warmUp(VertxGreeterGrpc.GreeterVertxStub stub, Set<String> backends) {
+    return call(stub).compose(backend -> {
+      backends.add(backend);
+      return backends.size() == 2 ? Future.succeededFuture() : warmUp(stub, backends);
+    });
+  }
+
+  @Test(timeout = 10_000L)
+  public void testConsistentHash(TestContext should) {
+    Map<String, Set<String>> owners = new ConcurrentHashMap<>();
+    startBackends(0L)
+      .compose(v -> {
+        channel = VertxChannelBuilder.forTarget(vertx, TARGET)
+          .consistentHash("x-key")
+          .usePlaintext()
+          .build();
+        VertxGreeterGrpc.GreeterVertxStub stub = VertxGreeterGrpc.newVertxStub(channel);
+        Future<Void> fut = warmUp(stub, new HashSet<>());
+        for (int i = 0;i < 20;i++) {
+          String key = "key-" + i;
+          Metadata headers = new Metadata();
+          headers.put(Metadata.Key.of("x-key", Metadata.ASCII_STRING_MARSHALLER), key);
+          VertxGreeterGrpc.GreeterVertxStub keyed = stub.withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers));
+          // The call option and the header with the same key use the same backend
+          VertxGreeterGrpc.GreeterVertxStub option = stub.withOption(ConsistentHashLoadBalancerProvider.HASH_KEY, key);
+          for (int j = 0;j < 3;j++) {
+            fut = fut
+              .compose(v2 -> call(keyed))
+              .compose(backend -> {
+                owners.computeIfAbsent(key, k -> new HashSet<>()).add(backend);
+                return call(option);
+              })
+              .map(backend -> {
+                owners.get(key).add(backend);
+                return null;
+              });
+          }
+        }
+        return fut;
+      })
+      .onComplete(should.asyncAssertSuccess(v -> {
+        Set<String> backends = new HashSet<>();
+        owners.forEach((key, owner) -> {
+          should.assertEquals(1, owner.size(), "Expected a single backend for " + key + ": " + owner);
+          backends.addAll(owner);
+        });
+        // The keys are spread over the backends
+        should.assertEquals(2, backends.size());
+      }));
+  }
+
+  @Test(timeout = 10_000L)
+  public void testConsistentHashFailover(TestContext should) {
+    startBackends(0L)
+      .compose(v -> {
+        channel = VertxChannelBuilder.forTarget(vertx, TARGET)
+          .consistentHash("x-key")
+          .usePlaintext()
+          .build();
+        return warmUp(VertxGreeterGrpc.newVertxStub(channel), new HashSet<>());
+      })
+      .compose(v -> {
+        Promise<Void> promise = Promise.promise();
+        VertxServer fast = other;
+        other = null;
+        fast.shutdown(promise);
+        return promise.future();
+      })
+      .compose(v -> {
+        // The keys of the stopped backend move to the next ready backend of the ring
+        VertxGreeterGrpc.GreeterVertxStub stub = VertxGreeterGrpc.newVertxStub(channel);
+        Future<Void> fut = Future.succeededFuture();
+        for (int i = 0;i < 20;i++) {
+          VertxGreeterGrpc.GreeterVertxStub keyed = stub.withOption(ConsistentHashLoadBalancerProvider.HASH_KEY, "key-" + i);
+          fut = fut
+            .compose(v2 -> callUntilSuccess(keyed, 50))
+            .map(backend -> {
+              should.assertEquals("slow", backend);
+              return null;
+            });
+        }
+        return fut;
+      })
+      .onComplete(should.asyncAssertSuccess());
+  }
+
+  /**
+   * Retry a call failing while the channel notices that a backend is stopped.
+   */
+  private Future<String> callUntilSuccess(VertxGreeterGrpc.GreeterVertxStub stub, int attempts) {
+    return call(stub).recover(err -> {
+      if (attempts <= 1) {
+        return Future.failedFuture(err);
+      }
+      Promise<Void> promise = Promise.promise();
+      vertx.setTimer(20, id -> promise.complete());
+      return promise.future().compose(v -> callUntilSuccess(stub, attempts - 1));
+    });
+  }
+}
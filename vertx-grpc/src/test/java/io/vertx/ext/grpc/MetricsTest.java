@@ -0,0 +1,181 @@
+package io.vertx.ext.grpc;
+
+import io.grpc.ManagedChannel;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.grpc.examples.helloworld.GreeterGrpc;
+import io.grpc.examples.helloworld.HelloReply;
+import io.grpc.examples.helloworld.HelloRequest;
+import io.grpc.examples.helloworld.VertxGreeterGrpc;
+import io.grpc.examples.streaming.Empty;
+import io.grpc.examples.streaming.Item;
+import io.grpc.examples.streaming.StreamingGrpc;
+import io.grpc.examples.streaming.VertxStreamingGrpc;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.metrics.MetricsOptions;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.core.spi.metrics.VertxMetrics;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.ext.grpc.utils.IterableReadStream;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.grpc.CompressionPolicy;
+import io.vertx.grpc.VertxChannelBuilder;
+import io.vertx.grpc.VertxServer;
+import io.vertx.grpc.VertxServerBuilder;
+import io.vertx.grpc.spi.metrics.GrpcClientMetrics;
+import io.vertx.grpc.spi.metrics.GrpcMethodMetrics;
+import io.vertx.grpc.spi.metrics.GrpcMetricsFactory;
+import io.vertx.grpc.spi.metrics.GrpcServerMetrics;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+public class MetricsTest extends GrpcTestBase {
+
+  private static final long DELAY = 20L;
+
+  private final Map<String, GrpcMethodMetrics> serverMethods = new ConcurrentHashMap<>();
+  private final Map<String, GrpcMethodMetrics> clientMethods = new ConcurrentHashMap<>();
+
+  private class FakeMetrics implements VertxMetrics, GrpcMetricsFactory {
+    @Override
+    public GrpcServerMetrics<?> createGrpcServerMetrics(SocketAddress localAddress) {
+      return new GrpcServerMetrics<GrpcMethodMetrics>() {
+        @Override
+        public GrpcMethodMetrics methodMetric(MethodDescriptor<?, ?> method) {
+          return serverMethods.computeIfAbsent(method.getFullMethodName(), GrpcMethodMetrics::new);
+        }
+        @Override
+        public void requestBegin(GrpcMethodMetrics methodMetric) {
+          methodMetric.requestBegin();
+        }
+        @Override
+        public void requestEnd(GrpcMethodMetrics methodMetric, Status.Code code, long latencyNanos) {
+          methodMetric.requestEnd(code, latencyNanos);
+        }
+        @Override
+        public void messageCompression(GrpcMethodMetrics methodMetric, CompressionDecision decision) {
+          methodMetric.messageCompression(decision);
+        }
+      };
+    }
+    @Override
+    public GrpcClientMetrics<?> createGrpcClientMetrics(String target) {
+      return new GrpcClientMetrics<GrpcMethodMetrics>() {
+        @Override
+        public GrpcMethodMetrics methodMetric(MethodDescriptor<?, ?> method) {
+          return clientMethods.computeIfAbsent(method.getFullMethodName(), GrpcMethodMetrics::new);
+        }
+        @Override
+        public void requestBegin(GrpcMethodMetrics methodMetric) {
+          methodMetric.requestBegin();
+        }
+        @Override
+        public void requestEnd(GrpcMethodMetrics methodMetric, Status.Code code, long latencyNanos) {
+          methodMetric.requestEnd(code, latencyNanos);
+        }
+      };
+    }
+  }
+
+  @Override
+  public void setUp() {
+    super.setUp();
+    vertx = Vertx.vertx(new VertxOptions().setMetricsOptions(new MetricsOptions()
+      .setEnabled(true)
+      .setFactory(options -> new FakeMetrics())));
+  }
+
+  @Test(timeout = 10_000L)
+  public void testRecordCalls(TestContext should) {
+    Async test = should.async();
+    startServer(new VertxGreeterGrpc.GreeterVertxImplBase() {
+      @Override
+      public Future<HelloReply> sayHello(HelloRequest request) {
+        if (request.getName().isEmpty()) {
+          return Future.failedFuture(Status.INVALID_ARGUMENT.asRuntimeException());
+        }
+        Promise<HelloReply> promise = Promise.promise();
+        vertx.setTimer(DELAY, id -> promise.complete(HelloReply.newBuilder().setMessage("Hello " + request.getName()).build()));
+        return promise.future();
+      }
+    })
+      .onFailure(should::fail)
+      .onSuccess(v -> {
+        ManagedChannel channel = VertxChannelBuilder.forAddress(vertx, "localhost", port)
+          .usePlaintext()
+          .build();
+        VertxGreeterGrpc.GreeterVertxStub stub = VertxGreeterGrpc.newVertxStub(channel);
+        stub.sayHello(HelloRequest.newBuilder().setName("Julien").build())
+          .compose(res -> stub.sayHello(HelloRequest.newBuilder().setName("").build()))
+          .onComplete(should.asyncAssertFailure(err -> {
+            String name = GreeterGrpc.getSayHelloMethod().getFullMethodName();
+            GrpcMethodMetrics clientMetrics = clientMethods.get(name);
+            should.assertNotNull(clientMetrics);
+            should.assertEquals(2L, clientMetrics.requests());
+            should.assertEquals(1L, clientMetrics.count(Status.Code.OK));
+            should.assertEquals(1L, clientMetrics.count(Status.Code.INVALID_ARGUMENT));
+            should.assertEquals(2L, clientMetrics.latency().count());
+            GrpcMethodMetrics serverMetrics = serverMethods.get(name);
+            should.assertNotNull(serverMetrics);
+            should.assertEquals(2L, serverMetrics.requests());
+            should.assertEquals(1L, serverMetrics.count(Status.Code.OK));
+            should.assertEquals(1L, serverMetrics.count(Status.Code.INVALID_ARGUMENT));
+            should.assertEquals(2L, serverMetrics.latency().count());
+            // The successful call takes at least the timer delay
+            should.assertTrue(serverMetrics.latency().percentile(100) >= TimeUnit.MILLISECONDS.toMicros(DELAY));
+            should.assertTrue(clientMetrics.latency().percentile(100) >= TimeUnit.MILLISECONDS.toMicros(DELAY));
+            channel.shutdown();
+            VertxServer s = server;
+            this.server = null;
+            s.shutdown(Duration.ofSeconds(5))
+              .compose(v2 -> vertx.close())
+              .onComplete(should.asyncAssertSuccess(v2 -> test.complete()));
+          }));
+      });
+  }
+
+  @Test(timeout = 10_000L)
+  public void testRecordCompression(TestContext should) {
+    Async test = should.async();
+    VertxServerBuilder builder = VertxServerBuilder.forPort(vertx, port)
+      .compressionPolicy(CompressionPolicy.create().setEncoding("gzip").setMinSize(1024));
+    startServer(new VertxStreamingGrpc.StreamingVertxImplBase() {
+      @Override
+      public void source(Empty request, WriteStream<Item> response) {
+        // Alternate small and large items
+        new IterableReadStream<>(cnt -> Item.newBuilder().setValue(cnt % 2 == 0 ? "small" : new String(new char[4096])).build(), 10).pipeTo(response);
+      }
+    }, builder)
+      .onFailure(should::fail)
+      .onSuccess(v -> {
+        ManagedChannel channel = VertxChannelBuilder.forAddress(vertx, "localhost", port)
+          .usePlaintext()
+          .build();
+        VertxStreamingGrpc.newVertxStub(channel)
+          .source(Empty.getDefaultInstance())
+          .exceptionHandler(should::fail)
+          .endHandler(v1 -> {
+            GrpcMethodMetrics serverMetrics = serverMethods.get(StreamingGrpc.getSourceMethod().getFullMethodName());
+            should.assertNotNull(serverMetrics);
+            should.assertEquals(5L, serverMetrics.count(GrpcServerMetrics.CompressionDecision.COMPRESSED));
+            should.assertEquals(5L, serverMetrics.count(GrpcServerMetrics.CompressionDecision.SKIPPED_SIZE));
+            should.assertEquals(0L, serverMetrics.count(GrpcServerMetrics.CompressionDecision.SKIPPED_BUSY));
+            channel.shutdown();
+            VertxServer s = server;
+            this.server = null;
+            s.shutdown(Duration.ofSeconds(5))
+              .compose(v2 -> vertx.close())
+              .onComplete(should.asyncAssertSuccess(v2 -> test.complete()));
+          })
+          .handler(item -> {});
+      });
+  }
+}
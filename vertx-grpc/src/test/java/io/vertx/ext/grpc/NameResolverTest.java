@@ -0,0 +1,197 @@
+package io.vertx.ext.grpc;
+
+import io.grpc.EquivalentAddressGroup;
+import io.grpc.ManagedChannel;
+import io.grpc.NameResolver;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.SynchronizationContext;
+import io.grpc.examples.helloworld.HelloReply;
+import io.grpc.examples.helloworld.HelloRequest;
+import io.grpc.examples.helloworld.VertxGreeterGrpc;
+import io.grpc.internal.GrpcUtil;
+import io.vertx.core.Future;
+import io.vertx.core.dns.DnsClientOptions;
+import io.vertx.ext.grpc.utils.FakeDnsServer;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.grpc.VertxChannelBuilder;
+import io.vertx.grpc.VertxNameResolverProvider;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+public class NameResolverTest extends GrpcTestBase {
+
+  private static final int DNS_PORT = 53530;
+
+  private FakeDnsServer dns;
+  private volatile ManagedChannel channel;
+
+  @Override
+  public void setUp() {
+    super.setUp();
+    dns = new FakeDnsServer()
+      .address("test.vertx.io", "127.0.0.1")
+      .srv("_grpc._tcp.test.vertx.io", 0, 0, port, "test.vertx.io");
+  }
+
+  @Override
+  public void tearDown(TestContext should) {
+    if (channel != null) {
+      channel.shutdown();
+    }
+    dns.stop();
+    super.tearDown(should);
+  }
+
+  private void testCall(TestContext should, String target) {
+    dns.start(vertx, DNS_PORT)
+      .compose(v -> startServer(new VertxGreeterGrpc.GreeterVertxImplBase() {
+        @Override
+        public Future<HelloReply> sayHello(HelloRequest request) {
+          return Future.succeededFuture(HelloReply.newBuilder().setMessage("Hello " + request.getName()).build());
+        }
+      }))
+      .onComplete(should.asyncAssertSuccess(v -> {
+        channel = VertxChannelBuilder.forTarget(vertx, target)
+          .usePlaintext()
+          .build();
+        VertxGreeterGrpc.newVertxStub(channel)
+          .sayHello(HelloRequest.newBuilder().setName("Julien").build())
+          .onComplete(should.asyncAssertSuccess(reply -> should.assertEquals("Hello Julien", reply.getMessage())));
+      }));
+  }
+
+  @Test(timeout = 10_000L)
+  public void testResolveAddress(TestContext should) {
+    testCall(should, "vertx-dns://127.0.0.1:" + DNS_PORT + "/test.vertx.io:" + port);
+  }
+
+  @Test(timeout = 10_000L)
+  public void testResolveService(TestContext should) {
+    testCall(should, "vertx-dns://127.0.0.1:" + DNS_PORT + "/_grpc._tcp.test.vertx.io");
+  }
+
+  @Test(timeout = 10_000L)
+  public void testUnknownHost(TestContext should) {
+    dns.start(vertx, DNS_PORT).onComplete(should.asyncAssertSuccess(v -> {
+      channel = VertxChannelBuilder.forTarget(vertx, "vertx-dns://127.0.0.1:" + DNS_PORT + "/unknown.vertx.io:" + port)
+        .usePlaintext()
+        .build();
+      VertxGreeterGrpc.newVertxStub(channel)
+        .sayHello(HelloRequest.newBuilder().setName("Julien").build())
+        .onComplete(should.asyncAssertFailure(err -> {
+          should.assertEquals(Status.Code.UNAVAILABLE, ((StatusRuntimeException) err).getStatus().getCode());
+        }));
+    }));
+  }
+
+  @Test(timeout = 10_000L)
+  public void testBackgroundRefresh(TestContext should) {
+    Async test = should.async();
+    VertxNameResolverProvider provider = new VertxNameResolverProvider(vertx, new DnsClientOptions())
+      .setTtl(200, TimeUnit.MILLISECONDS);
+    NameResolver resolver = newResolver(should, provider, "vertx-dns://127.0.0.1:" + DNS_PORT + "/test.vertx.io");
+    List<List<EquivalentAddressGroup>> results = new CopyOnWriteArrayList<>();
+    dns.start(vertx, DNS_PORT).onComplete(should.asyncAssertSuccess(v -> {
+      resolver.start(new NameResolver.Listener2() {
+        @Override
+        public void onResult(NameResolver.ResolutionResult result) {
+          results.add(result.getAddresses());
+          if (results.size() == 1) {
+            should.assertEquals(new InetSocketAddress("127.0.0.1", 443), results.get(0).get(0).getAddresses().get(0));
+            // Cached, no query is sent
+            int queries = dns.queries();
+            resolver.refresh();
+            should.assertEquals(queries, dns.queries());
+            // Resolved again when the TTL expires
+            dns.address("test.vertx.io", "127.0.0.2");
+          } else {
+            should.assertEquals(new InetSocketAddress("127.0.0.2", 443), results.get(1).get(0).getAddresses().get(0));
+            resolver.shutdown();
+            test.complete();
+          }
+        }
+        @Override
+        public void onError(Status error) {
+          should.fail(error.asException());
+        }
+      });
+    }));
+  }
+
+  @Test(timeout = 10_000L)
+  public void testServicePriority(TestContext should) {
+    Async test = should.async();
+    dns
+      .srv("_grpc._tcp.priority.vertx.io", 0, 0, port, "unknown.vertx.io")
+      .srv("_grpc._tcp.priority.vertx.io", 1, 0, port, "test.vertx.io")
+      .srv("_grpc._tcp.priority.vertx.io", 2, 0, port, "backup.vertx.io")
+      .address("backup.vertx.io", "127.0.0.3");
+    VertxNameResolverProvider provider = new VertxNameResolverProvider(vertx, new DnsClientOptions());
+    NameResolver resolver = newResolver(should, provider, "vertx-dns://127.0.0.1:" + DNS_PORT + "/_grpc._tcp.priority.vertx.io");
+    dns.start(vertx, DNS_PORT).onComplete(should.asyncAssertSuccess(v -> {
+      resolver.start(new NameResolver.Listener2() {
+        @Override
+        public void onResult(NameResolver.ResolutionResult result) {
+          // The unresolvable target is skipped and the backup target is not used
+          List<EquivalentAddressGroup> addresses = result.getAddresses();
+          should.assertEquals(1, addresses.size());
+          should.assertEquals(new InetSocketAddress("127.0.0.1", port), addresses.get(0).getAddresses().get(0));
+          resolver.shutdown();
+          test.complete();
+        }
+        @Override
+        public void onError(Status error) {
+          should.fail(error.asException());
+        }
+      });
+    }));
+  }
+
+  @Test(timeout = 10_000L)
+  public void testResolveIpv6Literal(TestContext should) throws Exception {
+    Async test = should.async();
+    VertxNameResolverProvider provider = new VertxNameResolverProvider(vertx, new DnsClientOptions());
+    NameResolver resolver = newResolver(should, provider, new URI("vertx-dns", "127.0.0.1:" + DNS_PORT, "/[::1]:" + port, null, null));
+    should.assertEquals("[::1]:" + port, resolver.getServiceAuthority());
+    resolver.start(new NameResolver.Listener2() {
+      @Override
+      public void onResult(NameResolver.ResolutionResult result) {
+        should.assertEquals(new InetSocketAddress("::1", port), result.getAddresses().get(0).getAddresses().get(0));
+        resolver.shutdown();
+        test.complete();
+      }
+      @Override
+      public void onError(Status error) {
+        should.fail(error.asException());
+      }
+    });
+  }
+
+  private NameResolver newResolver(TestContext should, VertxNameResolverProvider provider, String target) {
+    return newResolver(should, provider, URI.create(target));
+  }
+
+  private NameResolver newResolver(TestContext should, VertxNameResolverProvider provider, URI target) {
+    SynchronizationContext syncContext = new SynchronizationContext((t, e) -> should.fail(e));
+    NameResolver.Args args = NameResolver.Args.newBuilder()
+      .setDefaultPort(443)
+      .setProxyDetector(GrpcUtil.NOOP_PROXY_DETECTOR)
+      .setSynchronizationContext(syncContext)
+      .setServiceConfigParser(new NameResolver.ServiceConfigParser() {
+        @Override
+        public NameResolver.ConfigOrError parseServiceConfig(Map<String, ?> rawServiceConfig) {
+          return NameResolver.ConfigOrError.fromConfig(rawServiceConfig);
+        }
+      })
+      .build();
+    return provider.newNameResolver(target, args);
+  }
+}
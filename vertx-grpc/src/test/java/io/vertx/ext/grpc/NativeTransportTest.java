@@ -1,17 +1,28 @@
 package io.vertx.ext.grpc;
 
 import examples.GreeterGrpc;
+import io.grpc.ManagedChannel;
+import io.grpc.examples.helloworld.HelloReply;
+import io.grpc.examples.helloworld.HelloRequest;
+import io.grpc.examples.helloworld.VertxGreeterGrpc;
+import io.netty.channel.unix.DomainSocketAddress;
+import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import io.vertx.core.VertxOptions;
 import io.vertx.core.impl.VertxBuilder;
+import io.vertx.core.net.SocketAddress;
 import io.vertx.core.spi.transport.Transport;
 import io.vertx.ext.unit.TestContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.vertx.grpc.VertxChannelBuilder;
+import io.vertx.grpc.VertxServer;
 import io.vertx.grpc.VertxServerBuilder;
 import org.junit.Assume;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.io.File;
+
 @RunWith(VertxUnitRunner.class)
 public class NativeTransportTest {
 
@@ -27,6 +38,81 @@ public class NativeTransportTest {
     testInternal(ctx, Vertx.vertx(new VertxOptions().setPreferNativeTransport(false)));
   }
 
+  @Test
+  public void testReusePort(TestContext ctx) {
+    assumeNativeTransport();
+    Vertx vertx = Vertx.vertx(new VertxOptions().setPreferNativeTransport(true));
+    VertxServer server1 = VertxServerBuilder.forPort(vertx, 50053)
+      .addService(new GreeterGrpc.GreeterImplBase() { })
+      .reusePort(true)
+      .build();
+    VertxServer server2 = VertxServerBuilder.forPort(vertx, 50053)
+      .addService(new GreeterGrpc.GreeterImplBase() { })
+      .reusePort(true)
+      .build();
+    server1.start(ctx.asyncAssertSuccess(v1 -> {
+      server2.start(ctx.asyncAssertSuccess(v2 -> {
+        // Each server binds its own socket
+        ctx.assertNotEquals(server1.getRawServer(), server2.getRawServer());
+        vertx.close(ctx.asyncAssertSuccess());
+      }));
+    }));
+  }
+
+  @Test
+  public void testDomainSocket(TestContext ctx) throws Exception {
+    assumeNativeTransport();
+    Vertx vertx = Vertx.vertx(new VertxOptions().setPreferNativeTransport(true));
+    File sock = File.createTempFile("vertx", ".sock");
+    sock.delete();
+    SocketAddress address = SocketAddress.domainSocketAddress(sock.getAbsolutePath());
+    VertxServer server = VertxServerBuilder.forAddress(vertx, address)
+      .addService(new VertxGreeterGrpc.GreeterVertxImplBase() {
+        @Override
+        public Future<HelloReply> sayHello(HelloRequest request) {
+          return Future.succeededFuture(HelloReply.newBuilder().setMessage("Hello " + request.getName()).build());
+        }
+      })
+      .build();
+    server.start(ctx.asyncAssertSuccess(v -> {
+      ManagedChannel channel = VertxChannelBuilder.forAddress(vertx, address)
+        .usePlaintext()
+        .build();
+      VertxGreeterGrpc.GreeterVertxStub stub = VertxGreeterGrpc.newVertxStub(channel);
+      stub.sayHello(HelloRequest.newBuilder().setName("Julien").build()).onComplete(ctx.asyncAssertSuccess(res -> {
+        ctx.assertEquals("Hello Julien", res.getMessage());
+        channel.shutdown();
+        vertx.close(ctx.asyncAssertSuccess(v2 -> sock.delete()));
+      }));
+    }));
+  }
+
+  @Test
+  public void testDomainSocketRequiresNativeTransport(TestContext ctx) {
+    Vertx vertx = Vertx.vertx(new VertxOptions().setPreferNativeTransport(false));
+    VertxServerBuilder.forAddress(vertx, new DomainSocketAddress("/tmp/vertx-grpc-unsupported.sock"))
+      .addService(new GreeterGrpc.GreeterImplBase() { })
+      .build()
+      .start(ctx.asyncAssertFailure(err -> vertx.close(ctx.asyncAssertSuccess())));
+  }
+
+  @Test
+  public void testUnsupportedAddress(TestContext ctx) {
+    Vertx vertx = Vertx.vertx();
+    java.net.SocketAddress address = new java.net.SocketAddress() { };
+    try {
+      VertxServerBuilder.forAddress(vertx, address);
+      ctx.fail();
+    } catch (IllegalArgumentException expected) {
+    }
+    try {
+      VertxChannelBuilder.forAddress(vertx, address);
+      ctx.fail();
+    } catch (IllegalArgumentException expected) {
+    }
+    vertx.close(ctx.asyncAssertSuccess());
+  }
+
   private void testInternal(TestContext ctx, Vertx vertx) {
     VertxServerBuilder.forPort(vertx, 0)
       .addService(new GreeterGrpc.GreeterImplBase() { })
@@ -0,0 +1,104 @@
+package io.vertx.ext.grpc;
+
+import io.grpc.Drainable;
+import io.grpc.ManagedChannel;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.examples.helloworld.GreeterGrpc;
+import io.grpc.examples.helloworld.HelloReply;
+import io.grpc.examples.helloworld.HelloRequest;
+import io.grpc.examples.helloworld.VertxGreeterGrpc;
+import io.vertx.core.Future;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.grpc.ProtobufMarshaller;
+import io.vertx.grpc.VertxChannelBuilder;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+
+public class ProtobufMarshallerTest extends GrpcTestBase {
+
+  private static String name(int size) {
+    char[] chars = new char[size];
+    Arrays.fill(chars, 'x');
+    return new String(chars);
+  }
+
+  @Test
+  public void testRoundTrip(TestContext should) throws Exception {
+    ProtobufMarshaller<HelloRequest> marshaller = ProtobufMarshaller.create(HelloRequest.getDefaultInstance());
+    HelloRequest request = HelloRequest.newBuilder().setName(name(1024)).build();
+    should.assertEquals(request, marshaller.parse(marshaller.stream(request)));
+    // A stream without a known length
+    InputStream in = marshaller.stream(request);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[256];
+    int amount;
+    while ((amount = in.read(buffer)) != -1) {
+      out.write(buffer, 0, amount);
+    }
+    should.assertEquals(request, marshaller.parse(new ByteArrayInputStream(out.toByteArray())));
+  }
+
+  @Test
+  public void testDrain(TestContext should) throws Exception {
+    ProtobufMarshaller<HelloRequest> marshaller = ProtobufMarshaller.create(HelloRequest.getDefaultInstance());
+    HelloRequest request = HelloRequest.newBuilder().setName(name(16 * 1024)).build();
+    InputStream in = marshaller.stream(request);
+    should.assertEquals(request.getSerializedSize(), in.available());
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    should.assertEquals(request.getSerializedSize(), ((Drainable) in).drainTo(out));
+    should.assertEquals(0, in.available());
+    should.assertEquals(request, marshaller.parse(new ByteArrayInputStream(out.toByteArray())));
+    // Drain after a partial read
+    in = marshaller.stream(request);
+    should.assertTrue(in.read() != -1);
+    out.reset();
+    should.assertEquals(request.getSerializedSize() - 1, ((Drainable) in).drainTo(out));
+    should.assertEquals(request.getSerializedSize() - 1, out.size());
+    // Empty message
+    in = marshaller.stream(HelloRequest.getDefaultInstance());
+    out.reset();
+    should.assertEquals(0, ((Drainable) in).drainTo(out));
+    should.assertEquals(-1, in.read());
+  }
+
+  @Test
+  public void testBindService(TestContext should) {
+    ServerServiceDefinition service = new VertxGreeterGrpc.GreeterVertxImplBase() {
+    }.withProtobufMarshaller().bindService();
+    MethodDescriptor<?, ?> method = service.getMethod(GreeterGrpc.getSayHelloMethod().getFullMethodName()).getMethodDescriptor();
+    should.assertTrue(method.getRequestMarshaller() instanceof ProtobufMarshaller);
+    should.assertTrue(method.getResponseMarshaller() instanceof ProtobufMarshaller);
+    should.assertEquals(GreeterGrpc.getServiceDescriptor().getSchemaDescriptor(), service.getServiceDescriptor().getSchemaDescriptor());
+  }
+
+  @Test(timeout = 10_000L)
+  public void testLargeMessage(TestContext should) {
+    Async test = should.async();
+    String name = name(256 * 1024);
+    startServer(new VertxGreeterGrpc.GreeterVertxImplBase() {
+      @Override
+      public Future<HelloReply> sayHello(HelloRequest request) {
+        return Future.succeededFuture(HelloReply.newBuilder().setMessage(request.getName()).build());
+      }
+    }.withProtobufMarshaller())
+      .onFailure(should::fail)
+      .onSuccess(v -> {
+        ManagedChannel channel = VertxChannelBuilder.forAddress(vertx, "localhost", port)
+          .usePlaintext()
+          .intercept(ProtobufMarshaller.clientInterceptor())
+          .build();
+        VertxGreeterGrpc.GreeterVertxStub stub = VertxGreeterGrpc.newVertxStub(channel);
+        stub.sayHello(HelloRequest.newBuilder().setName(name).build()).onComplete(should.asyncAssertSuccess(res -> {
+          should.assertEquals(name, res.getMessage());
+          channel.shutdown();
+          test.complete();
+        }));
+      });
+  }
+}
@@ -0,0 +1,183 @@
+package io.vertx.ext.grpc;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.examples.helloworld.HelloReply;
+import io.grpc.examples.helloworld.HelloRequest;
+import io.grpc.examples.helloworld.VertxGreeterGrpc;
+import io.grpc.examples.streaming.Empty;
+import io.grpc.examples.streaming.Item;
+import io.grpc.examples.streaming.VertxStreamingGrpc;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.ext.grpc.utils.IterableReadStream;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.grpc.GrpcProxy;
+import io.vertx.grpc.VertxChannelBuilder;
+import io.vertx.grpc.VertxServer;
+import io.vertx.grpc.VertxServerBuilder;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class ProxyTest extends GrpcTestBase {
+
+  private static final int PROXY_PORT = 8081;
+
+  private volatile ManagedChannel backendChannel;
+  private volatile ManagedChannel channel;
+  private volatile VertxServer proxy;
+
+  @Override
+  public void tearDown(TestContext should) {
+    if (channel != null) {
+      channel.shutdown();
+    }
+    if (backendChannel != null) {
+      backendChannel.shutdown();
+    }
+    if (proxy != null) {
+      proxy.shutdown(should.asyncAssertSuccess());
+    }
+    super.tearDown(should);
+  }
+
+  private Future<Void> startProxy(GrpcProxy registry) {
+    Promise<Void> promise = Promise.promise();
+    proxy = VertxServerBuilder.forPort(vertx, PROXY_PORT)
+      .fallbackHandlerRegistry(registry)
+      .build()
+      .start(promise);
+    return promise.future().map(v -> {
+      channel = VertxChannelBuilder.forAddress(vertx, "localhost", PROXY_PORT)
+        .usePlaintext()
+        .build();
+      return null;
+    });
+  }
+
+  private Future<Void> start() {
+    VertxServerBuilder builder = VertxServerBuilder.forPort(vertx, port)
+      .addService(new VertxStreamingGrpc.StreamingVertxImplBase() {
+        @Override
+        public void source(Empty request, WriteStream<Item> response) {
+          new IterableReadStream<>(cnt -> Item.newBuilder().setValue("the-value-" + cnt).build(), 128).pipeTo(response);
+        }
+        @Override
+        public void pipe(ReadStream<Item> request, WriteStream<Item> response) {
+          request.pipeTo(response);
+        }
+      });
+    return startServer(new VertxGreeterGrpc.GreeterVertxImplBase() {
+      @Override
+      public Future<HelloReply> sayHello(HelloRequest request) {
+        return Future.succeededFuture(HelloReply.newBuilder().setMessage("Hello " + request.getName()).build());
+      }
+    }, builder).compose(v -> {
+      backendChannel = VertxChannelBuilder.forAddress(vertx, "localhost", port)
+        .usePlaintext()
+        .build();
+      return startProxy(GrpcProxy.create(backendChannel));
+    });
+  }
+
+  @Test(timeout = 10_000L)
+  public void testUnary(TestContext should) {
+    start().onComplete(should.asyncAssertSuccess(v -> {
+      VertxGreeterGrpc.GreeterVertxStub stub = VertxGreeterGrpc.newVertxStub(channel);
+      stub.sayHello(HelloRequest.newBuilder().setName("Julien").build()).onComplete(should.asyncAssertSuccess(reply -> {
+        should.assertEquals("Hello Julien", reply.getMessage());
+      }));
+    }));
+  }
+
+  @Test(timeout = 10_000L)
+  public void testServerStreaming(TestContext should) {
+    Async test = should.async();
+    start().onComplete(should.asyncAssertSuccess(v -> {
+      VertxStreamingGrpc.StreamingVertxStub stub = VertxStreamingGrpc.newVertxStub(channel);
+      List<String> items = new ArrayList<>();
+      stub.source(Empty.getDefaultInstance())
+        .endHandler(v1 -> {
+          List<String> expected = IntStream.range(0, 128).mapToObj(val -> "the-value-" + val).collect(Collectors.toList());
+          should.assertEquals(expected, items);
+          test.complete();
+        })
+        .exceptionHandler(should::fail)
+        .handler(item -> items.add(item.getValue()));
+    }));
+  }
+
+  @Test(timeout = 10_000L)
+  public void testBidiStreaming(TestContext should) {
+    Async test = should.async();
+    start().onComplete(should.asyncAssertSuccess(v -> {
+      VertxStreamingGrpc.StreamingVertxStub stub = VertxStreamingGrpc.newVertxStub(channel);
+      List<String> items = new ArrayList<>();
+      stub.pipe(ws -> new IterableReadStream<>(cnt -> Item.newBuilder().setValue("the-value-" + cnt).build(), 128).pipeTo(ws))
+        .endHandler(v1 -> {
+          should.assertEquals(128, items.size());
+          test.complete();
+        })
+        .exceptionHandler(should::fail)
+        .handler(item -> items.add(item.getValue()));
+    }));
+  }
+
+  @Test(timeout = 10_000L)
+  public void testNoChannel(TestContext should) {
+    startProxy(GrpcProxy.create((methodName, headers) -> null)).onComplete(should.asyncAssertSuccess(v -> {
+      VertxGreeterGrpc.GreeterVertxStub stub = VertxGreeterGrpc.newVertxStub(channel);
+      stub.sayHello(HelloRequest.newBuilder().setName("Julien").build()).onComplete(should.asyncAssertFailure(err -> {
+        should.assertEquals(Status.Code.UNIMPLEMENTED, ((StatusRuntimeException) err).getStatus().getCode());
+      }));
+    }));
+  }
+
+  @Test(timeout = 10_000L)
+  public void testRetry(TestContext should) {
+    AtomicInteger attempts = new AtomicInteger();
+    Map<String, Object> retryPolicy = new HashMap<>();
+    retryPolicy.put("maxAttempts", 3D);
+    retryPolicy.put("initialBackoff", "0.01s");
+    retryPolicy.put("maxBackoff", "0.01s");
+    retryPolicy.put("backoffMultiplier", 1D);
+    retryPolicy.put("retryableStatusCodes", Collections.singletonList("UNAVAILABLE"));
+    Map<String, Object> methodConfig = new HashMap<>();
+    methodConfig.put("name", Collections.singletonList(Collections.singletonMap("service", "helloworld.Greeter")));
+    methodConfig.put("retryPolicy", retryPolicy);
+    startServer(new VertxGreeterGrpc.GreeterVertxImplBase() {
+      @Override
+      public Future<HelloReply> sayHello(HelloRequest request) {
+        if (attempts.incrementAndGet() < 3) {
+          return Future.failedFuture(Status.UNAVAILABLE.asRuntimeException());
+        }
+        return Future.succeededFuture(HelloReply.newBuilder().setMessage("Hello " + request.getName()).build());
+      }
+    }).compose(v -> {
+      backendChannel = VertxChannelBuilder.forAddress(vertx, "localhost", port)
+        .usePlaintext()
+        .defaultServiceConfig(Collections.singletonMap("methodConfig", Collections.singletonList(methodConfig)))
+        .enableRetry()
+        .build();
+      return startProxy(GrpcProxy.create(backendChannel));
+    }).onComplete(should.asyncAssertSuccess(v -> {
+      VertxGreeterGrpc.GreeterVertxStub stub = VertxGreeterGrpc.newVertxStub(channel);
+      stub.sayHello(HelloRequest.newBuilder().setName("Julien").build()).onComplete(should.asyncAssertSuccess(reply -> {
+        should.assertEquals(3, attempts.get());
+        should.assertEquals("Hello Julien", reply.getMessage());
+      }));
+    }));
+  }
+}
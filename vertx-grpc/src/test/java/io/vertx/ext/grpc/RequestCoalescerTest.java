@@ -0,0 +1,158 @@
+package io.vertx.ext.grpc;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import io.grpc.ManagedChannel;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.examples.helloworld.GreeterGrpc;
+import io.grpc.examples.helloworld.HelloReply;
+import io.grpc.examples.helloworld.HelloRequest;
+import io.grpc.examples.helloworld.VertxGreeterGrpc;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.grpc.RequestCoalescer;
+import io.vertx.grpc.VertxChannelBuilder;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RequestCoalescerTest extends GrpcTestBase {
+
+  private volatile ManagedChannel channel;
+
+  @Override
+  public void tearDown(TestContext should) {
+    if (channel != null) {
+      channel.shutdown();
+    }
+    super.tearDown(should);
+  }
+
+  private Future<VertxGreeterGrpc.GreeterVertxStub> start(RequestCoalescer coalescer, VertxGreeterGrpc.GreeterVertxImplBase service) {
+    return startServer(ServerInterceptors.intercept(service, coalescer)).map(v -> {
+      channel = VertxChannelBuilder.forAddress(vertx, "localhost", port)
+        .usePlaintext()
+        .build();
+      return VertxGreeterGrpc.newVertxStub(channel);
+    });
+  }
+
+  private static HelloRequest request(String name) {
+    return HelloRequest.newBuilder().setName(name).build();
+  }
+
+  @Test(timeout = 10_000L)
+  public void testCoalesce(TestContext should) {
+    int numCalls = 3;
+    Async test = should.async(numCalls);
+    AtomicInteger invocations = new AtomicInteger();
+    AtomicInteger done = new AtomicInteger();
+    RequestCoalescer coalescer = RequestCoalescer.create().addMethod(GreeterGrpc.getSayHelloMethod());
+    start(coalescer, new VertxGreeterGrpc.GreeterVertxImplBase() {
+      @Override
+      public Future<HelloReply> sayHello(HelloRequest request) {
+        int count = invocations.incrementAndGet();
+        Promise<HelloReply> promise = Promise.promise();
+        vertx.setTimer(200, id -> promise.complete(HelloReply.newBuilder().setMessage("Hello " + request.getName() + " " + count).build()));
+        return promise.future();
+      }
+    }).onComplete(should.asyncAssertSuccess(stub -> {
+      for (int i = 0;i < numCalls;i++) {
+        stub.sayHello(request("Julien")).onComplete(should.asyncAssertSuccess(res -> {
+          should.assertEquals("Hello Julien 1", res.getMessage());
+          if (done.incrementAndGet() == numCalls) {
+            should.assertEquals(1, invocations.get());
+            should.assertEquals((long) numCalls - 1, coalescer.coalesced());
+          }
+          test.countDown();
+        }));
+      }
+    }));
+  }
+
+  @Test(timeout = 10_000L)
+  public void testDifferentRequests(TestContext should) {
+    Async test = should.async(2);
+    AtomicInteger invocations = new AtomicInteger();
+    RequestCoalescer coalescer = RequestCoalescer.create().addMethod(GreeterGrpc.getSayHelloMethod());
+    start(coalescer, new VertxGreeterGrpc.GreeterVertxImplBase() {
+      @Override
+      public Future<HelloReply> sayHello(HelloRequest request) {
+        invocations.incrementAndGet();
+        Promise<HelloReply> promise = Promise.promise();
+        vertx.setTimer(100, id -> promise.complete(HelloReply.newBuilder().setMessage("Hello " + request.getName()).build()));
+        return promise.future();
+      }
+    }).onComplete(should.asyncAssertSuccess(stub -> {
+      stub.sayHello(request("Julien")).onComplete(should.asyncAssertSuccess(res -> {
+        should.assertEquals("Hello Julien", res.getMessage());
+        test.countDown();
+      }));
+      stub.sayHello(request("Paulo")).onComplete(should.asyncAssertSuccess(res -> {
+        should.assertEquals("Hello Paulo", res.getMessage());
+        should.assertEquals(0L, coalescer.coalesced());
+        test.countDown();
+      }));
+    }));
+  }
+
+  @Test(timeout = 10_000L)
+  public void testShareFailure(TestContext should) {
+    int numCalls = 2;
+    Async test = should.async(numCalls);
+    RequestCoalescer coalescer = RequestCoalescer.create().addMethod(GreeterGrpc.getSayHelloMethod());
+    start(coalescer, new VertxGreeterGrpc.GreeterVertxImplBase() {
+      @Override
+      public Future<HelloReply> sayHello(HelloRequest request) {
+        Promise<HelloReply> promise = Promise.promise();
+        vertx.setTimer(200, id -> promise.fail(Status.NOT_FOUND.asRuntimeException()));
+        return promise.future();
+      }
+    }).onComplete(should.asyncAssertSuccess(stub -> {
+      for (int i = 0;i < numCalls;i++) {
+        stub.sayHello(request("Julien")).onComplete(should.asyncAssertFailure(err -> {
+          should.assertEquals(Status.Code.NOT_FOUND, Status.fromThrowable(err).getCode());
+          test.countDown();
+        }));
+      }
+    }));
+  }
+
+  @Test(timeout = 10_000L)
+  public void testPromoteWaiter(TestContext should) {
+    Async test = should.async();
+    AtomicInteger invocations = new AtomicInteger();
+    RequestCoalescer coalescer = RequestCoalescer.create().addMethod(GreeterGrpc.getSayHelloMethod());
+    start(coalescer, new VertxGreeterGrpc.GreeterVertxImplBase() {
+      @Override
+      public Future<HelloReply> sayHello(HelloRequest request) {
+        int count = invocations.incrementAndGet();
+        if (count == 1) {
+          // The first invocation never responds, its call is cancelled
+          return Promise.<HelloReply>promise().future();
+        }
+        return Future.succeededFuture(HelloReply.newBuilder().setMessage("Hello " + request.getName() + " " + count).build());
+      }
+    }).onComplete(should.asyncAssertSuccess(stub -> {
+      ListenableFuture<HelloReply> leader = GreeterGrpc.newFutureStub(channel).sayHello(request("Julien"));
+      vertx.setPeriodic(10, id -> {
+        if (invocations.get() == 1) {
+          vertx.cancelTimer(id);
+          stub.sayHello(request("Julien")).onComplete(should.asyncAssertSuccess(res -> {
+            should.assertEquals("Hello Julien 2", res.getMessage());
+            should.assertEquals(1L, coalescer.coalesced());
+            test.complete();
+          }));
+          vertx.setPeriodic(10, id2 -> {
+            if (coalescer.coalesced() == 1L) {
+              vertx.cancelTimer(id2);
+              leader.cancel(true);
+            }
+          });
+        }
+      });
+    }));
+  }
+}
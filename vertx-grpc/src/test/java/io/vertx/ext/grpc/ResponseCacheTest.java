@@ -0,0 +1,200 @@
+package io.vertx.ext.grpc;
+
+import io.grpc.ForwardingServerCall;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.examples.helloworld.GreeterGrpc;
+import io.grpc.examples.helloworld.HelloReply;
+import io.grpc.examples.helloworld.HelloRequest;
+import io.grpc.examples.helloworld.VertxGreeterGrpc;
+import io.grpc.stub.MetadataUtils;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.grpc.ResponseCache;
+import io.vertx.grpc.VertxChannelBuilder;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ResponseCacheTest extends GrpcTestBase {
+
+  private volatile ManagedChannel channel;
+
+  @Override
+  public void tearDown(TestContext should) {
+    if (channel != null) {
+      channel.shutdown();
+    }
+    super.tearDown(should);
+  }
+
+  private Future<VertxGreeterGrpc.GreeterVertxStub> start(ResponseCache cache, AtomicInteger invocations, ServerInterceptor... interceptors) {
+    VertxGreeterGrpc.GreeterVertxImplBase service = new VertxGreeterGrpc.GreeterVertxImplBase() {
+      @Override
+      public Future<HelloReply> sayHello(HelloRequest request) {
+        return Future.succeededFuture(HelloReply.newBuilder().setMessage("Hello " + request.getName() + " " + invocations.incrementAndGet()).build());
+      }
+    };
+    ServerInterceptor[] chain = Arrays.copyOf(interceptors, interceptors.length + 1);
+    chain[interceptors.length] = cache;
+    return startServer(ServerInterceptors.intercept(service, chain)).map(v -> {
+      channel = VertxChannelBuilder.forAddress(vertx, "localhost", port)
+        .usePlaintext()
+        .build();
+      return VertxGreeterGrpc.newVertxStub(channel);
+    });
+  }
+
+  private static HelloRequest request(String name) {
+    return HelloRequest.newBuilder().setName(name).build();
+  }
+
+  @Test(timeout = 10_000L)
+  public void testHit(TestContext should) {
+    Async test = should.async();
+    AtomicInteger invocations = new AtomicInteger();
+    ResponseCache cache = ResponseCache.create().addMethod(GreeterGrpc.getSayHelloMethod());
+    start(cache, invocations).onComplete(should.asyncAssertSuccess(stub -> {
+      stub.sayHello(request("Julien"))
+        .compose(res1 -> stub.sayHello(request("Julien")).map(res2 -> {
+          should.assertEquals("Hello Julien 1", res1.getMessage());
+          should.assertEquals("Hello Julien 1", res2.getMessage());
+          return res2;
+        }))
+        .compose(res -> stub.sayHello(request("Paulo")))
+        .onComplete(should.asyncAssertSuccess(res -> {
+          should.assertEquals("Hello Paulo 2", res.getMessage());
+          should.assertEquals(2, invocations.get());
+          should.assertEquals(1L, cache.hits());
+          should.assertEquals(2L, cache.misses());
+          should.assertEquals(2, cache.size());
+          test.complete();
+        }));
+    }));
+  }
+
+  @Test(timeout = 10_000L)
+  public void testNotCacheable(TestContext should) {
+    Async test = should.async();
+    AtomicInteger invocations = new AtomicInteger();
+    ResponseCache cache = ResponseCache.create();
+    start(cache, invocations).onComplete(should.asyncAssertSuccess(stub -> {
+      stub.sayHello(request("Julien"))
+        .compose(res -> stub.sayHello(request("Julien")))
+        .onComplete(should.asyncAssertSuccess(res -> {
+          should.assertEquals("Hello Julien 2", res.getMessage());
+          should.assertEquals(0L, cache.hits());
+          should.assertEquals(0L, cache.misses());
+          test.complete();
+        }));
+    }));
+  }
+
+  @Test(timeout = 10_000L)
+  public void testExpiration(TestContext should) {
+    Async test = should.async();
+    AtomicInteger invocations = new AtomicInteger();
+    ResponseCache cache = ResponseCache.create()
+      .addMethod(GreeterGrpc.getSayHelloMethod())
+      .setTtl(50, TimeUnit.MILLISECONDS);
+    start(cache, invocations).onComplete(should.asyncAssertSuccess(stub -> {
+      stub.sayHello(request("Julien"))
+        .compose(res -> {
+          Promise<Void> promise = Promise.promise();
+          vertx.setTimer(100, id -> promise.complete());
+          return promise.future();
+        })
+        .compose(v -> stub.sayHello(request("Julien")))
+        .onComplete(should.asyncAssertSuccess(res -> {
+          should.assertEquals("Hello Julien 2", res.getMessage());
+          should.assertEquals(0L, cache.hits());
+          test.complete();
+        }));
+    }));
+  }
+
+  @Test(timeout = 10_000L)
+  public void testEviction(TestContext should) {
+    Async test = should.async();
+    AtomicInteger invocations = new AtomicInteger();
+    ResponseCache cache = ResponseCache.create()
+      .addMethod(GreeterGrpc.getSayHelloMethod())
+      .setMaxSize(1);
+    start(cache, invocations).onComplete(should.asyncAssertSuccess(stub -> {
+      stub.sayHello(request("Julien"))
+        .compose(res -> stub.sayHello(request("Paulo")))
+        .compose(res -> stub.sayHello(request("Julien")))
+        .onComplete(should.asyncAssertSuccess(res -> {
+          should.assertEquals("Hello Julien 3", res.getMessage());
+          should.assertEquals(1, cache.size());
+          test.complete();
+        }));
+    }));
+  }
+
+  @Test(timeout = 10_000L)
+  public void testHitTrailers(TestContext should) {
+    Async test = should.async();
+    Metadata.Key<String> key = Metadata.Key.of("the-trailer", Metadata.ASCII_STRING_MARSHALLER);
+    ServerInterceptor trailers = new ServerInterceptor() {
+      @Override
+      public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+        return next.startCall(new ForwardingServerCall.SimpleForwardingServerCall<ReqT, RespT>(call) {
+          @Override
+          public void close(Status status, Metadata trailers) {
+            trailers.put(key, "the-value");
+            super.close(status, trailers);
+          }
+        }, headers);
+      }
+    };
+    AtomicReference<Metadata> received = new AtomicReference<>();
+    ResponseCache cache = ResponseCache.create().addMethod(GreeterGrpc.getSayHelloMethod());
+    start(cache, new AtomicInteger(), trailers).onComplete(should.asyncAssertSuccess(stub -> {
+      VertxGreeterGrpc.GreeterVertxStub capturing = stub.withInterceptors(MetadataUtils.newCaptureMetadataInterceptor(new AtomicReference<>(), received));
+      capturing.sayHello(request("Julien"))
+        .compose(res -> capturing.sayHello(request("Julien")))
+        .onComplete(should.asyncAssertSuccess(res -> {
+          should.assertEquals(1L, cache.hits());
+          should.assertEquals("the-value", received.get().get(key));
+          test.complete();
+        }));
+    }));
+  }
+
+  @Test(timeout = 10_000L)
+  public void testBinaryHeader(TestContext should) {
+    Async test = should.async();
+    AtomicInteger invocations = new AtomicInteger();
+    ResponseCache cache = ResponseCache.create()
+      .addMethod(GreeterGrpc.getSayHelloMethod())
+      .addHeader("the-header-bin");
+    start(cache, invocations).onComplete(should.asyncAssertSuccess(stub -> {
+      stub.withInterceptors(MetadataUtils.newAttachHeadersInterceptor(binaryHeader(1))).sayHello(request("Julien"))
+        .compose(res -> stub.withInterceptors(MetadataUtils.newAttachHeadersInterceptor(binaryHeader(2))).sayHello(request("Julien")))
+        .compose(res -> stub.withInterceptors(MetadataUtils.newAttachHeadersInterceptor(binaryHeader(1))).sayHello(request("Julien")))
+        .onComplete(should.asyncAssertSuccess(res -> {
+          should.assertEquals("Hello Julien 1", res.getMessage());
+          should.assertEquals(1L, cache.hits());
+          should.assertEquals(2L, cache.misses());
+          test.complete();
+        }));
+    }));
+  }
+
+  private static Metadata binaryHeader(int value) {
+    Metadata headers = new Metadata();
+    headers.put(Metadata.Key.of("the-header-bin", Metadata.BINARY_BYTE_MARSHALLER), new byte[] { (byte) value });
+    return headers;
+  }
+}
@@ -0,0 +1,137 @@
+package io.vertx.ext.grpc;
+
+import io.grpc.ConnectivityState;
+import io.grpc.InternalChannelz;
+import io.grpc.InternalInstrumented;
+import io.grpc.InternalWithLogId;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.examples.helloworld.HelloReply;
+import io.grpc.examples.helloworld.HelloRequest;
+import io.grpc.examples.helloworld.VertxGreeterGrpc;
+import io.grpc.stub.MetadataUtils;
+import io.vertx.core.Future;
+import io.vertx.core.http.Http2Settings;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.grpc.VertxChannelBuilder;
+import io.vertx.grpc.VertxServerBuilder;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class ServerOptionsTest extends GrpcTestBase {
+
+  private volatile ManagedChannel channel;
+
+  @Override
+  public void tearDown(TestContext should) {
+    if (channel != null) {
+      channel.shutdown();
+    }
+    super.tearDown(should);
+  }
+
+  private Future<VertxGreeterGrpc.GreeterVertxStub> start(VertxServerBuilder builder) {
+    return startServer(new VertxGreeterGrpc.GreeterVertxImplBase() {
+      @Override
+      public Future<HelloReply> sayHello(HelloRequest request) {
+        return Future.succeededFuture(HelloReply.newBuilder().setMessage("Hello " + request.getName()).build());
+      }
+    }, builder).map(v -> {
+      channel = VertxChannelBuilder.forAddress(vertx, "localhost", port)
+        .usePlaintext()
+        .build();
+      return VertxGreeterGrpc.newVertxStub(channel);
+    });
+  }
+
+  @Test(timeout = 10_000L)
+  public void testTcpOptions(TestContext should) {
+    VertxServerBuilder builder = VertxServerBuilder.forPort(vertx, port)
+      .useOptions(options -> options
+        .setTcpNoDelay(false)
+        .setSendBufferSize(128 * 1024)
+        .setReceiveBufferSize(128 * 1024)
+        .setAcceptBacklog(256));
+    start(builder).onComplete(should.asyncAssertSuccess(stub -> {
+      stub.sayHello(HelloRequest.newBuilder().setName("Julien").build()).onComplete(should.asyncAssertSuccess(reply -> {
+        should.assertEquals("Hello Julien", reply.getMessage());
+        // The stats of the connection are collected on its event loop
+        vertx.executeBlocking(() -> connectionOptions()).onComplete(should.asyncAssertSuccess(options -> {
+          should.assertEquals("false", options.get("TCP_NODELAY"));
+          // The kernel may round the buffer size up
+          should.assertTrue(Integer.parseInt(options.get("SO_SNDBUF")) >= 128 * 1024);
+          should.assertTrue(Integer.parseInt(options.get("SO_RCVBUF")) >= 128 * 1024);
+        }));
+      }));
+    }));
+  }
+
+  /**
+   * @return the socket options of the connection accepted by the server
+   */
+  private Map<String, String> connectionOptions() throws Exception {
+    InternalChannelz channelz = InternalChannelz.instance();
+    long serverId = ((InternalInstrumented<?>) server.getRawServer()).getLogId().getId();
+    List<InternalWithLogId> sockets = channelz.getServerSockets(serverId, 0L, Integer.MAX_VALUE).sockets;
+    assertEquals(1, sockets.size());
+    InternalInstrumented<InternalChannelz.SocketStats> socket = channelz.getSocket(sockets.get(0).getLogId().getId());
+    return socket.getStats().get().socketOptions.others;
+  }
+
+  @Test(timeout = 10_000L)
+  public void testIdleTimeout(TestContext should) {
+    Async test = should.async();
+    VertxServerBuilder builder = VertxServerBuilder.forPort(vertx, port)
+      .useOptions(options -> options.setIdleTimeout(1).setIdleTimeoutUnit(TimeUnit.SECONDS));
+    start(builder).onComplete(should.asyncAssertSuccess(stub -> {
+      stub.sayHello(HelloRequest.newBuilder().setName("Julien").build()).onComplete(should.asyncAssertSuccess(reply -> {
+        should.assertEquals(ConnectivityState.READY, channel.getState(false));
+        // The server closes the idle connection
+        channel.notifyWhenStateChanged(ConnectivityState.READY, () -> {
+          should.assertEquals(ConnectivityState.IDLE, channel.getState(false));
+          test.complete();
+        });
+      }));
+    }));
+  }
+
+  @Test(timeout = 10_000L)
+  public void testMaxHeaderListSize(TestContext should) {
+    VertxServerBuilder builder = VertxServerBuilder.forPort(vertx, port)
+      .useOptions(options -> options.setInitialSettings(new Http2Settings().setMaxHeaderListSize(1024)));
+    start(builder).onComplete(should.asyncAssertSuccess(stub -> {
+      char[] chars = new char[4096];
+      Arrays.fill(chars, 'x');
+      Metadata headers = new Metadata();
+      headers.put(Metadata.Key.of("large", Metadata.ASCII_STRING_MARSHALLER), new String(chars));
+      stub
+        .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers))
+        .sayHello(HelloRequest.newBuilder().setName("Julien").build()).onComplete(should.asyncAssertFailure());
+    }));
+  }
+
+  @Test(timeout = 10_000L)
+  public void testExplicitWindow(TestContext should) {
+    Async test = should.async();
+    VertxServerBuilder builder = VertxServerBuilder.forPort(vertx, port)
+      .flowControlWindow(4 * 1024 * 1024)
+      .useOptions(options -> options.setInitialSettings(new Http2Settings().setInitialWindowSize(128 * 1024)));
+    start(builder).onComplete(should.asyncAssertSuccess(stub -> {
+      stub.sayHello(HelloRequest.newBuilder().setName("Julien").build()).onComplete(should.asyncAssertSuccess(reply -> {
+        server.flowControlWindows().onComplete(should.asyncAssertSuccess(windows -> {
+          should.assertEquals(1, windows.size());
+          // The window set on the builder is kept
+          should.assertTrue(windows.get(0).localWindow() > 128 * 1024);
+          test.complete();
+        }));
+      }));
+    }));
+  }
+}
@@ -0,0 +1,122 @@
+package io.vertx.ext.grpc;
+
+import io.grpc.ManagedChannel;
+import io.grpc.examples.helloworld.HelloReply;
+import io.grpc.examples.helloworld.HelloRequest;
+import io.grpc.examples.helloworld.VertxGreeterGrpc;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.grpc.VertxChannelBuilder;
+import org.junit.Test;
+
+import java.time.Duration;
+
+public class ShutdownTest extends GrpcTestBase {
+
+  private volatile ManagedChannel channel;
+
+  @Override
+  public void tearDown(TestContext should) {
+    if (channel != null) {
+      channel.shutdown();
+    }
+    super.tearDown(should);
+  }
+
+  @Test(timeout = 10_000L)
+  public void testGracefulShutdown(TestContext should) {
+    Async test = should.async(2);
+    startServer(new VertxGreeterGrpc.GreeterVertxImplBase() {
+      @Override
+      public Future<HelloReply> sayHello(HelloRequest request) {
+        Promise<HelloReply> promise = Promise.promise();
+        server.shutdown(Duration.ofSeconds(5)).onComplete(should.asyncAssertSuccess(v -> {
+          should.assertTrue(server.isShutdown());
+          test.countDown();
+        }));
+        vertx.setTimer(200, id -> promise.complete(HelloReply.newBuilder().setMessage("Hello " + request.getName()).build()));
+        return promise.future();
+      }
+    })
+      .onFailure(should::fail)
+      .onSuccess(v -> {
+        channel = VertxChannelBuilder.forAddress(vertx, "localhost", port)
+          .usePlaintext()
+          .build();
+        VertxGreeterGrpc.GreeterVertxStub stub = VertxGreeterGrpc.newVertxStub(channel);
+        stub.sayHello(HelloRequest.newBuilder().setName("Julien").build()).onComplete(should.asyncAssertSuccess(res -> {
+          should.assertEquals("Hello Julien", res.getMessage());
+          test.countDown();
+        }));
+      });
+  }
+
+  @Test(timeout = 10_000L)
+  public void testGracePeriodExpired(TestContext should) {
+    Async test = should.async(2);
+    startServer(new VertxGreeterGrpc.GreeterVertxImplBase() {
+      @Override
+      public Future<HelloReply> sayHello(HelloRequest request) {
+        server.shutdown(Duration.ofMillis(100)).onComplete(should.asyncAssertSuccess(v -> test.countDown()));
+        // Never replies
+        return Promise.<HelloReply>promise().future();
+      }
+    })
+      .onFailure(should::fail)
+      .onSuccess(v -> {
+        channel = VertxChannelBuilder.forAddress(vertx, "localhost", port)
+          .usePlaintext()
+          .build();
+        VertxGreeterGrpc.GreeterVertxStub stub = VertxGreeterGrpc.newVertxStub(channel);
+        stub.sayHello(HelloRequest.newBuilder().setName("Julien").build()).onComplete(should.asyncAssertFailure(err -> test.countDown()));
+      });
+  }
+
+  @Test(timeout = 10_000L)
+  public void testShutdownNow(TestContext should) {
+    startServer(new VertxGreeterGrpc.GreeterVertxImplBase() {
+    })
+      .onComplete(should.asyncAssertSuccess(v -> {
+        should.assertFalse(server.isShutdown());
+        server.shutdownNow();
+        should.assertTrue(server.isShutdown());
+      }));
+  }
+
+  @Test(timeout = 10_000L)
+  public void testNegativeGracePeriod(TestContext should) {
+    startServer(new VertxGreeterGrpc.GreeterVertxImplBase() {
+    })
+      .onComplete(should.asyncAssertSuccess(v -> {
+        try {
+          server.shutdown(Duration.ofMillis(-1));
+          should.fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        should.assertFalse(server.isShutdown());
+      }));
+  }
+
+  @Test(timeout = 10_000L)
+  public void testSubMillisecondGracePeriod(TestContext should) {
+    Async test = should.async(2);
+    startServer(new VertxGreeterGrpc.GreeterVertxImplBase() {
+      @Override
+      public Future<HelloReply> sayHello(HelloRequest request) {
+        // Rounded up to a grace period of a millisecond
+        server.shutdown(Duration.ofNanos(500)).onComplete(should.asyncAssertSuccess(v -> test.countDown()));
+        return Promise.<HelloReply>promise().future();
+      }
+    })
+      .onFailure(should::fail)
+      .onSuccess(v -> {
+        channel = VertxChannelBuilder.forAddress(vertx, "localhost", port)
+          .usePlaintext()
+          .build();
+        VertxGreeterGrpc.GreeterVertxStub stub = VertxGreeterGrpc.newVertxStub(channel);
+        stub.sayHello(HelloRequest.newBuilder().setName("Julien").build()).onComplete(should.asyncAssertFailure(err -> test.countDown()));
+      });
+  }
+}
@@ -1,6 +1,15 @@
 package io.vertx.ext.grpc;
 
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.Grpc;
 import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
 import io.grpc.examples.helloworld.HelloReply;
 import io.grpc.examples.helloworld.HelloRequest;
 import io.grpc.examples.helloworld.VertxGreeterGrpc;
@@ -11,12 +20,18 @@ import io.vertx.core.http.ClientAuth;
 import io.vertx.core.http.HttpServerOptions;
 import io.vertx.core.net.ClientOptionsBase;
 import io.vertx.core.net.JksOptions;
+import io.vertx.core.net.SSLOptions;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import io.vertx.grpc.VertxChannelBuilder;
 import io.vertx.grpc.VertxServerBuilder;
 import org.junit.Test;
 
+import javax.net.ssl.SSLPeerUnverifiedException;
+import javax.net.ssl.SSLSession;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -93,6 +108,166 @@ public class SslTest extends GrpcTestBase {
           .setPassword("wibble")), ctx, false);
   }
 
+  @Test(timeout = 10_000L)
+  public void testBuildAsync(TestContext should) {
+    final Async test = should.async();
+
+    VertxGreeterGrpc.GreeterVertxImplBase service = new VertxGreeterGrpc.GreeterVertxImplBase() {
+      @Override
+      public Future<HelloReply> sayHello(HelloRequest request) {
+        return Future.succeededFuture(HelloReply.newBuilder().setMessage("Hello " + request.getName()).build());
+      }
+    };
+
+    startServer(service, VertxServerBuilder.forPort(vertx, port).useSsl(options -> options
+      .setSsl(true)
+      .setUseAlpn(true)
+      .setKeyStoreOptions(new JksOptions()
+        .setPath("tls/server-keystore.jks")
+        .setPassword("wibble"))))
+      .compose(v -> VertxChannelBuilder
+        .forAddress(vertx, "localhost", port)
+        .useSsl(options -> options
+          .setSsl(true)
+          .setUseAlpn(true)
+          .setTrustStoreOptions(new JksOptions()
+            .setPath("tls/client-truststore.jks")
+            .setPassword("wibble")))
+        .buildAsync())
+      .onComplete(should.asyncAssertSuccess(channel -> {
+        VertxGreeterGrpc.GreeterVertxStub stub = VertxGreeterGrpc.newVertxStub(channel);
+        HelloRequest request = HelloRequest.newBuilder().setName("Julien").build();
+        stub.sayHello(request).onComplete(should.asyncAssertSuccess(res -> {
+          should.assertEquals("Hello Julien", res.getMessage());
+          channel.shutdown();
+          test.complete();
+        }));
+      }));
+  }
+
+  /**
+   * Call the greeter with a new channel trusting all certificates and return the subject of the server certificate.
+   */
+  private Future<String> peerSubject() {
+    AtomicReference<SSLSession> session = new AtomicReference<>();
+    ManagedChannel channel = VertxChannelBuilder
+      .forAddress(vertx, "localhost", port)
+      .useSsl(options -> options
+        .setSsl(true)
+        .setUseAlpn(true)
+        .setTrustAll(true))
+      .intercept(new ClientInterceptor() {
+        @Override
+        public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+          return new ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT>(next.newCall(method, callOptions)) {
+            @Override
+            public void start(Listener<RespT> responseListener, Metadata headers) {
+              super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<RespT>(responseListener) {
+                @Override
+                public void onHeaders(Metadata headers) {
+                  session.set(getAttributes().get(Grpc.TRANSPORT_ATTR_SSL_SESSION));
+                  super.onHeaders(headers);
+                }
+              }, headers);
+            }
+          };
+        }
+      })
+      .build();
+    return VertxGreeterGrpc.newVertxStub(channel)
+      .sayHello(HelloRequest.newBuilder().setName("Julien").build())
+      .transform(ar -> {
+        channel.shutdown();
+        if (ar.failed()) {
+          return Future.failedFuture(ar.cause());
+        }
+        try {
+          return Future.succeededFuture(((X509Certificate) session.get().getPeerCertificates()[0]).getSubjectX500Principal().getName());
+        } catch (SSLPeerUnverifiedException e) {
+          return Future.failedFuture(e);
+        }
+      });
+  }
+
+  @Test(timeout = 10_000L)
+  public void testUpdateSSLOptions(TestContext should) {
+    VertxGreeterGrpc.GreeterVertxImplBase service = new VertxGreeterGrpc.GreeterVertxImplBase() {
+      @Override
+      public Future<HelloReply> sayHello(HelloRequest request) {
+        return Future.succeededFuture(HelloReply.newBuilder().setMessage("Hello " + request.getName()).build());
+      }
+    };
+
+    startServer(service, VertxServerBuilder.forPort(vertx, port).useSsl(options -> options
+      .setSsl(true)
+      .setUseAlpn(true)
+      .setKeyStoreOptions(new JksOptions()
+        .setPath("tls/server-keystore.jks")
+        .setPassword("wibble"))))
+      .compose(v -> peerSubject())
+      .compose(subject -> {
+        should.assertEquals("CN=localhost", subject);
+        return server.updateSSLOptions(new SSLOptions()
+          .setKeyCertOptions(new JksOptions()
+            .setPath("tls/server-keystore-updated.jks")
+            .setPassword("wibble")));
+      })
+      .compose(v -> peerSubject())
+      .onComplete(should.asyncAssertSuccess(subject -> {
+        // The new handshakes use the new certificate
+        should.assertEquals("CN=localhost,O=Updated", subject);
+      }));
+  }
+
+  @Test(timeout = 10_000L)
+  public void testUpdateClientSSLOptions(TestContext should) {
+    VertxGreeterGrpc.GreeterVertxImplBase service = new VertxGreeterGrpc.GreeterVertxImplBase() {
+      @Override
+      public Future<HelloReply> sayHello(HelloRequest request) {
+        return Future.succeededFuture(HelloReply.newBuilder().setMessage("Hello " + request.getName()).build());
+      }
+    };
+
+    VertxChannelBuilder builder = VertxChannelBuilder
+      .forAddress(vertx, "localhost", port)
+      .useSsl(options -> options
+        .setSsl(true)
+        .setUseAlpn(true)
+        .setTrustStoreOptions(new JksOptions()
+          .setPath("tls/client-truststore.jks")
+          .setPassword("wibble")));
+    List<ManagedChannel> channels = new ArrayList<>();
+    startServer(service, VertxServerBuilder.forPort(vertx, port).useSsl(options -> options
+      .setSsl(true)
+      .setUseAlpn(true)
+      .setKeyStoreOptions(new JksOptions()
+        .setPath("tls/server-keystore-updated.jks")
+        .setPassword("wibble"))))
+      .compose(v -> {
+        // The channels connect lazily, the first call uses the updated trust store
+        channels.add(builder.build());
+        channels.add(builder.build());
+        return builder.updateSSLOptions(new SSLOptions()
+          .setTrustOptions(new JksOptions()
+            .setPath("tls/client-truststore-updated.jks")
+            .setPassword("wibble")));
+      })
+      .compose(v -> VertxGreeterGrpc.newVertxStub(channels.get(0)).sayHello(HelloRequest.newBuilder().setName("Julien").build()))
+      .compose(v -> VertxGreeterGrpc.newVertxStub(channels.get(1)).sayHello(HelloRequest.newBuilder().setName("Julien").build()))
+      .onComplete(should.asyncAssertSuccess(res -> {
+        should.assertEquals("Hello Julien", res.getMessage());
+        channels.forEach(ManagedChannel::shutdown);
+      }));
+  }
+
+  @Test(timeout = 10_000L)
+  public void testUpdateSSLOptionsPlaintext(TestContext should) {
+    startServer(new VertxGreeterGrpc.GreeterVertxImplBase() {
+    })
+      .compose(v -> server.updateSSLOptions(new SSLOptions()))
+      .onComplete(should.asyncAssertFailure(err -> should.assertTrue(err instanceof IllegalStateException)));
+  }
+
   private void testSimple(Handler<ClientOptionsBase> clientSslBuilder,
                           Handler<HttpServerOptions> serverSslBuilder,
                           TestContext should,
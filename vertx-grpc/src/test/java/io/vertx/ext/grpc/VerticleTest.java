@@ -16,6 +16,8 @@ import org.junit.*;
 import org.junit.runner.RunWith;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
@@ -24,6 +26,10 @@ import java.util.*;
 public class VerticleTest {
 
   private static final Set<Thread> threads = Collections.synchronizedSet(new HashSet<>());
+  private static final Map<Thread, AtomicInteger> calls = new ConcurrentHashMap<>();
+  private static final Map<Context, AtomicInteger> instanceCalls = new ConcurrentHashMap<>();
+  private static final Map<String, Thread> placements = new ConcurrentHashMap<>();
+  private static final List<Promise<HelloReply>> held = Collections.synchronizedList(new ArrayList<>());
 
   @Rule
   public RunTestOnContext rule = new RunTestOnContext();
@@ -39,15 +45,25 @@ public class VerticleTest {
   @After
   public void tearDown() {
     threads.clear();
+    calls.clear();
+    instanceCalls.clear();
+    placements.clear();
+    held.clear();
   }
 
   public static class GrpcVerticle extends AbstractVerticle {
 
     private final int port;
+    private final boolean leastLoaded;
     private volatile VertxServer server;
 
-    public GrpcVerticle(int port) {
+    public GrpcVerticle(int port, boolean leastLoaded) {
       this.port = port;
+      this.leastLoaded = leastLoaded;
+    }
+
+    public GrpcVerticle(int port) {
+      this(port, false);
     }
 
     public GrpcVerticle() {
@@ -60,10 +76,19 @@ public class VerticleTest {
         @Override
         public Future<HelloReply> sayHello(HelloRequest request) {
           threads.add(Thread.currentThread());
+          calls.computeIfAbsent(Thread.currentThread(), t -> new AtomicInteger()).incrementAndGet();
+          instanceCalls.computeIfAbsent(Vertx.currentContext(), c -> new AtomicInteger()).incrementAndGet();
+          placements.put(request.getName(), Thread.currentThread());
+          if (request.getName().equals("hold")) {
+            // Keep the stream open
+            Promise<HelloReply> promise = Promise.promise();
+            held.add(promise);
+            return promise.future();
+          }
           return Future.succeededFuture(HelloReply.newBuilder().setMessage("Hello " + request.getName()).build());
         }
       };
-      server = VertxServerBuilder.forPort(vertx, port).addService(service).build();
+      server = VertxServerBuilder.forPort(vertx, port).leastLoaded(leastLoaded).addService(service).build();
       server.start(startFuture);
     }
 
@@ -103,6 +128,79 @@ public class VerticleTest {
       });
   }
 
+  @Test(timeout = 10_000L)
+  public void testEvenDispatch(TestContext should) {
+    final int instances = 2;
+    final int num = 10 * instances;
+    final Async test = should.async(num);
+    final Async closed = should.async();
+    // A single event loop, so the instances share the event loop accepting the connections
+    Vertx single = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(1));
+    single.deployVerticle(() -> new GrpcVerticle(50052), new DeploymentOptions().setInstances(instances))
+      .onFailure(should::fail)
+      .onSuccess(id -> {
+        List<ManagedChannel> toClose = new ArrayList<>();
+        for (int i = 0; i < num; i++) {
+          ManagedChannel channel = VertxChannelBuilder.forAddress(vertx, "localhost", 50052)
+            .usePlaintext()
+            .build();
+          toClose.add(channel);
+          VertxGreeterGrpc.GreeterVertxStub stub = VertxGreeterGrpc.newVertxStub(channel);
+          HelloRequest request = HelloRequest.newBuilder().setName("Julien").build();
+          stub.sayHello(request).onComplete(should.asyncAssertSuccess(res -> {
+            test.countDown();
+            if (test.count() == 0) {
+              toClose.forEach(ManagedChannel::shutdown);
+              // Connections are bound in turn to the instances of the event loop
+              should.assertEquals(instances, instanceCalls.size());
+              instanceCalls.values().forEach(count -> should.assertEquals(num / instances, count.get()));
+              single.close().onComplete(ar -> closed.complete());
+            }
+          }));
+        }
+      });
+  }
+
+  @Test(timeout = 10_000L)
+  public void testLeastLoaded(TestContext should) {
+    final int streams = 3;
+    final Async test = should.async();
+    vertx.deployVerticle(() -> new GrpcVerticle(50054, true), new DeploymentOptions().setInstances(2))
+      .onFailure(should::fail)
+      .onSuccess(id -> {
+        List<ManagedChannel> toClose = new ArrayList<>();
+        // Load one event loop with streams held open
+        VertxGreeterGrpc.GreeterVertxStub busy = leastLoadedStub(toClose);
+        for (int i = 0;i < streams;i++) {
+          busy.sayHello(HelloRequest.newBuilder().setName("hold").build());
+        }
+        vertx.setPeriodic(10, timer -> {
+          if (held.size() < streams) {
+            return;
+          }
+          vertx.cancelTimer(timer);
+          // A round-robin would place the second connection on the busy event loop
+          leastLoadedStub(toClose).sayHello(HelloRequest.newBuilder().setName("first").build())
+            .compose(v -> leastLoadedStub(toClose).sayHello(HelloRequest.newBuilder().setName("second").build()))
+            .onComplete(should.asyncAssertSuccess(v -> {
+              should.assertNotEquals(placements.get("hold"), placements.get("first"));
+              should.assertEquals(placements.get("first"), placements.get("second"));
+              held.forEach(promise -> promise.complete(HelloReply.getDefaultInstance()));
+              toClose.forEach(ManagedChannel::shutdown);
+              test.complete();
+            }));
+        });
+      });
+  }
+
+  private VertxGreeterGrpc.GreeterVertxStub leastLoadedStub(List<ManagedChannel> toClose) {
+    ManagedChannel channel = VertxChannelBuilder.forAddress(vertx, "localhost", 50054)
+      .usePlaintext()
+      .build();
+    toClose.add(channel);
+    return VertxGreeterGrpc.newVertxStub(channel);
+  }
+
   @Test(timeout = 10_000L)
   public void testCloseInVerticle(TestContext should) {
     Async test = should.async();
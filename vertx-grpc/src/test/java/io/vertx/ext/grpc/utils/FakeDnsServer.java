@@ -0,0 +1,150 @@
+package io.vertx.ext.grpc.utils;
+
+import com.google.common.net.InetAddresses;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.handler.codec.dns.DatagramDnsQuery;
+import io.netty.handler.codec.dns.DatagramDnsQueryDecoder;
+import io.netty.handler.codec.dns.DatagramDnsResponse;
+import io.netty.handler.codec.dns.DatagramDnsResponseEncoder;
+import io.netty.handler.codec.dns.DefaultDnsRawRecord;
+import io.netty.handler.codec.dns.DnsQuestion;
+import io.netty.handler.codec.dns.DnsRecordType;
+import io.netty.handler.codec.dns.DnsResponseCode;
+import io.netty.handler.codec.dns.DnsSection;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.VertxInternal;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A minimal DNS server answering {@code A}, {@code AAAA} and {@code SRV} queries from records set by the tests.
+ */
+public class FakeDnsServer {
+
+  private static class Srv {
+    final int priority;
+    final int weight;
+    final int port;
+    final String target;
+    Srv(int priority, int weight, int port, String target) {
+      this.priority = priority;
+      this.weight = weight;
+      this.port = port;
+      this.target = target;
+    }
+  }
+
+  private final Map<String, List<String>> addresses = new ConcurrentHashMap<>();
+  private final Map<String, List<Srv>> services = new ConcurrentHashMap<>();
+  private final AtomicInteger queries = new AtomicInteger();
+  private volatile long ttl = 60L;
+  private Channel channel;
+
+  public FakeDnsServer ttl(long ttl) {
+    this.ttl = ttl;
+    return this;
+  }
+
+  public FakeDnsServer address(String name, String... values) {
+    addresses.put(name, new CopyOnWriteArrayList<>(values));
+    return this;
+  }
+
+  public FakeDnsServer srv(String name, int priority, int weight, int port, String target) {
+    services.computeIfAbsent(name, n -> new CopyOnWriteArrayList<>()).add(new Srv(priority, weight, port, target));
+    return this;
+  }
+
+  /**
+   * @return the number of queries received
+   */
+  public int queries() {
+    return queries.get();
+  }
+
+  public Future<Void> start(Vertx vertx, int port) {
+    Promise<Void> promise = Promise.promise();
+    ChannelFuture bind = new Bootstrap()
+      .group(((VertxInternal) vertx).getEventLoopGroup())
+      .channel(NioDatagramChannel.class)
+      .handler(new ChannelInitializer<DatagramChannel>() {
+        @Override
+        protected void initChannel(DatagramChannel ch) {
+          ch.pipeline().addLast(new DatagramDnsQueryDecoder(), new DatagramDnsResponseEncoder(), new SimpleChannelInboundHandler<DatagramDnsQuery>() {
+            @Override
+            protected void channelRead0(ChannelHandlerContext ctx, DatagramDnsQuery query) {
+              ctx.writeAndFlush(answer(query));
+            }
+          });
+        }
+      })
+      .bind("127.0.0.1", port);
+    bind.addListener(f -> {
+      if (f.isSuccess()) {
+        channel = bind.channel();
+        promise.complete();
+      } else {
+        promise.fail(f.cause());
+      }
+    });
+    return promise.future();
+  }
+
+  public void stop() {
+    if (channel != null) {
+      channel.close();
+    }
+  }
+
+  private DatagramDnsResponse answer(DatagramDnsQuery query) {
+    queries.incrementAndGet();
+    DnsQuestion question = query.recordAt(DnsSection.QUESTION);
+    String name = question.name().endsWith(".") ? question.name().substring(0, question.name().length() - 1) : question.name();
+    DatagramDnsResponse response = new DatagramDnsResponse(query.recipient(), query.sender(), query.id());
+    response.setRecursionAvailable(true);
+    response.addRecord(DnsSection.QUESTION, question);
+    if (!addresses.containsKey(name) && !services.containsKey(name)) {
+      response.setCode(DnsResponseCode.NXDOMAIN);
+      return response;
+    }
+    DnsRecordType type = question.type();
+    if (type == DnsRecordType.A || type == DnsRecordType.AAAA) {
+      int length = type == DnsRecordType.A ? 4 : 16;
+      for (String address : addresses.getOrDefault(name, Collections.emptyList())) {
+        byte[] bytes = InetAddresses.forString(address).getAddress();
+        if (bytes.length == length) {
+          response.addRecord(DnsSection.ANSWER, new DefaultDnsRawRecord(question.name(), type, ttl, Unpooled.wrappedBuffer(bytes)));
+        }
+      }
+    } else if (type == DnsRecordType.SRV) {
+      for (Srv srv : services.getOrDefault(name, Collections.emptyList())) {
+        ByteBuf content = Unpooled.buffer();
+        content.writeShort(srv.priority).writeShort(srv.weight).writeShort(srv.port);
+        for (String label : srv.target.split("\\.")) {
+          content.writeByte(label.length());
+          content.writeCharSequence(label, StandardCharsets.US_ASCII);
+        }
+        content.writeByte(0);
+        response.addRecord(DnsSection.ANSWER, new DefaultDnsRawRecord(question.name(), DnsRecordType.SRV, ttl, content));
+      }
+    }
+    return response;
+  }
+}